@@ -36,18 +36,16 @@ public class AccuseDialog extends DialogPanel {
 		
 		//Get the game's cards and sort out the rooms
 		ArrayList<Card> cards = board.getDeck();
-		Card[] Rooms = new Card[9];
-		int i = 0;
+		ArrayList<Card> Rooms = new ArrayList<Card>();
 		for(Card card : cards) {
 			if(card.getType() == CardType.ROOM) {
-				Rooms[i] = card;
-				i++;
+				Rooms.add(card);
 			}
 		}
 		
-		//Create the label and the combo box for rooms
+		//Create the label and the combo box for rooms, sized to however many rooms the setup file declared.
 		roomLabel = new JLabel("Room");
-		roomBox = new JComboBox<Card>(Rooms);
+		roomBox = new JComboBox<Card>(Rooms.toArray(new Card[0]));
 		
 		//Add the room box listener and submit button listener
 		roomBox.addActionListener(new roomListener());
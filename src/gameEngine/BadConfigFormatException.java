@@ -1,8 +1,5 @@
 package gameEngine;
 
-import java.io.FileWriter;
-import java.io.IOException;
-
 /**
  * Custom exception to catch improperly formatted config files 
  * @author Derek Suzumoto
@@ -16,16 +13,8 @@ public class BadConfigFormatException extends Exception {
 	 */
 	public BadConfigFormatException(String Message) {
 		super(Message);
-		System.out.println(Message + "\n Writing error to data/errorlog.txt...");
-		try {
-			FileWriter writer = new FileWriter("data/errorlog.txt", true);
-			writer.write(Message + "\n");
-			writer.close();
-		}catch (IOException e) {
-			System.out.println("Could not write to file.");
-		}finally {
-			System.out.println("Done.");
-		}
+		//Queue the message for the error log, rather than writing to the file here.
+		ErrorLog.log(Message);
 	}
 	
 	/**
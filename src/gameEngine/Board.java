@@ -7,10 +7,12 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 
 import java.util.HashSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.io.*;
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 
@@ -21,25 +23,60 @@ import java.awt.event.MouseListener;
  * @author Luke Wakumoto
  */
 public class Board extends JPanel implements MouseListener{
-	//Constants for grid size
-	private static int boardWidth;
-	private static int boardHeight;
+	//The size of the grid, set from the layout file each time it is loaded.
+	private int boardWidth;
+	private int boardHeight;
 	//The game board itself
 	private BoardCell[][] gameBoard;
 	//Sets for calculating viable targets to move to.
 	private Set<BoardCell> targets;
-	private Stack<BoardCell> visited;
-	//Strings for loading in data from the layout and setup configuration files.
+	//Compact copy of the adjacency lists, built once they are complete, or a lazy graph that works them out as they are needed.
+	private BoardGraph boardGraph;
+	//Iterative target search and the bitset it writes into.
+	private TargetFinder targetFinder;
+	private BitSet targetBits, footprintBits;
+	private BitSet[] rollBits;
+	//Table of every target for every cell and roll, calculated once per layout.
+	private TargetTable targetTable;
+	//Targets calculated under the current occupancy, thrown out as players move. Holds rolls up to MAX_CACHED_ROLL.
+	private TargetCache targetCache;
+	public static final int MAX_CACHED_ROLL = 18;
+	//Held for reading by searches that can run on several threads at once, and for writing by anything that changes occupancy, the cache,
+	//the table, or the layout.
+	private final ReentrantReadWriteLock targetLock = new ReentrantReadWriteLock();
+	//Distances from every cell to every room's center, calculated once per layout.
+	private RoomDistances roomDistances;
+	//Whether adjacency lists are built in parallel row bands, and the fewest rows a band will hold.
+	private boolean parallelAdjacency;
+	public static final int MIN_BAND_ROWS = 8;
+	//Whether large layout files are parsed in parallel chunks.
+	private boolean parallelLoading;
+	//Whether adjacency lists are worked out the first time each cell is searched, rather than all at once.
+	private boolean lazyAdjacency;
+	//The seed every game is started from, or null to start each game from a different seed, and the current game's random number generator.
+	private Long gameSeed;
+	private GameRandom random = new GameRandom();
+	//Strings for loading in data from the layout and setup configuration files, or from a compiled board file in their place.
 	private String layoutConfigFile, setupConfigFile;
+	private String compiledConfigFile;
+	//The key the current files are cached under in BoardTemplate, or null if they aren't cached.
+	private String templateKey;
 	//Map to contain all the tile characters
 	private Map<Character, Room> roomMap;
 	private static Board boardInstance = new Board();
 	//Set to hold all player objects involved in the game
 	private ArrayList<Player> players;
-	//ArrayList to hold all the cards in the game's deck.
+	//ArrayList to hold all the cards in the game's deck, and the registry that gives them their ids.
 	private ArrayList<Card> deck;
-	//A set to hold the answer to the game's mystery, or the solution.
-	private Set<Card> solution;
+	private CardRegistry registry = new CardRegistry();
+	//The deck's cards grouped by type, for drawing a card of one type. Created the first time one is drawn, and never dealt from.
+	private CardDealer cardPools;
+	//How the cards left after the solution is drawn are dealt, and how many each player gets under DealPolicy.FIXED.
+	private DealPolicy dealPolicy = DealPolicy.EVEN;
+	private int handSize = Player.MAX_CARDS;
+	//The answer to the game's mystery, or the solution, packed into a SolutionKey, and the registry its ids are from.
+	private long solution;
+	private CardRegistry solutionRegistry;
 	//Variables to determine how the state of the turn engine
 	private boolean turnComplete;
 	private int currentPlayerNumber = 0, currentRoll;
@@ -69,6 +106,77 @@ public class Board extends JPanel implements MouseListener{
 	public void setConfigFiles(String layoutFile, String setupFile) {
 		layoutConfigFile = "data/" + layoutFile;
 		setupConfigFile = "data/" + setupFile;
+		compiledConfigFile = null;
+	}
+	
+	/**
+	 * Sets a compiled board file to load in place of a layout and setup file. See BoardFile for how to create one. Calling setConfigFiles()
+	 * afterwards goes back to loading the text files.
+	 * @param compiledFile - The name of a file written by BoardFile. Assumed to be in the "data/" directory.
+	 */
+	public void setCompiledFile(String compiledFile) {
+		compiledConfigFile = "data/" + compiledFile;
+	}
+	
+	/**
+	 * Sets whether setAdjLists() builds adjacency lists in parallel row bands. The lists come out the same either way, but on boards with
+	 * many rows building them in parallel is faster. Takes effect the next time initialize() or setAdjLists() is called.
+	 * @param parallel - True to build adjacency lists in parallel.
+	 */
+	public void setParallelAdjacency(boolean parallel) {
+		parallelAdjacency = parallel;
+	}
+	
+	/**
+	 * Sets whether loadLayoutConfig() parses large layout files in parallel chunks of rows. The board comes out the same either way, and the
+	 * same error is thrown for a bad file, but layouts of millions of cells load faster in parallel. See LayoutParser.setParallel().
+	 * @param parallel - True to parse large layout files in parallel.
+	 */
+	public void setParallelLoading(boolean parallel) {
+		parallelLoading = parallel;
+	}
+	
+	/**
+	 * Sets whether setAdjLists() builds a LazyBoardGraph in place of every cell's adjacency list. On very large boards most cells are never
+	 * searched in a game, so working out each cell's neighbors the first time it is searched makes loading faster and uses less memory. The
+	 * targets come out the same either way. The target table is filled in as cells are searched too, so it doesn't work out every list
+	 * up front. Takes effect the next time initialize() or setAdjLists() is called. Templates are cached
+	 * separately for each setting, and compiled board files always hold every list.
+	 * @param lazy - True to work out adjacency lists as they are needed.
+	 */
+	public void setLazyAdjacency(boolean lazy) {
+		lazyAdjacency = lazy;
+	}
+	
+	/**
+	 * Sets the seed games are started from. Every game started by initialize() with the same seed and files is dealt the same way, rolls the
+	 * same numbers, and has its computer players make the same choices, as long as the human player does the same. Takes effect the next time
+	 * initialize() is called.
+	 * @param seed - The seed, or null to start each game from a different seed.
+	 */
+	public void setSeed(Long seed) {
+		gameSeed = seed;
+	}
+	
+	/**
+	 * Returns the current game's random number generator. Its seed can be passed to setSeed() to replay the game, and code that makes random
+	 * choices on another thread should split its own generator off from it.
+	 * @return - The game's random number generator.
+	 */
+	public GameRandom getRandom() {
+		return random;
+	}
+	
+	/**
+	 * Sets how the cards left after the solution is drawn are dealt. EVEN, the default, deals every card, so decks of any size are dealt
+	 * out in full and hands differ by at most one card. FIXED deals handSize cards to each player in turn and leaves the rest undealt. Takes
+	 * effect the next time initialize() or dealCards() is called.
+	 * @param policy - How to deal the cards.
+	 * @param handSize - The number of cards each player is dealt under FIXED.
+	 */
+	public void setDealPolicy(DealPolicy policy, int handSize) {
+		dealPolicy = policy;
+		this.handSize = handSize;
 	}
 	
 	/**
@@ -78,27 +186,69 @@ public class Board extends JPanel implements MouseListener{
 	public void initialize() {
 		//Allocate memory for instance variables
 		targets = new HashSet<BoardCell>();
-		visited = new Stack<BoardCell>();
+		targetBits = new BitSet();
+		footprintBits = new BitSet();
+		rollBits = new BitSet[0];
 		roomMap = new HashMap<Character, Room>();
 		players = new ArrayList<Player>();
 		deck = new ArrayList<Card>();
+		cardPools = null;
+		boardGraph = null;
+		targetFinder = null;
+		targetTable = null;
+		targetCache = null;
+		roomDistances = null;
+		//Every game draws from one generator, seeded once here.
+		random = (gameSeed == null) ? new GameRandom() : new GameRandom(gameSeed);
 		
 		//Add the mouse listener to the panel
 		addMouseListener(this);
 		
 		//Try to load the setup and layout config files, and initialize the game instance variables. Catch and handle BadConfigFormatExceptions here.
 		try {
-			//Load the setup file first.
-			loadSetupConfig();
-			
-			//Then generate the game board based on the rooms specified in the setup file
-			loadLayoutConfig();
-			
-			//Once the files are loaded properly, parse the newly generated board and build adjacency lists.
-			setAdjLists();
+			//If these exact files have been loaded before, start a new game on the same template rather than loading them again.
+			templateKey = BoardTemplate.getKey(layoutConfigFile, setupConfigFile, compiledConfigFile, getLoadOptions());
+			BoardTemplate template = (templateKey == null) ? null : BoardTemplate.get(templateKey);
+			if(template != null) {
+				useTemplate(template);
+			}
+			else {
+				//A compiled board already holds everything the setup and layout files would produce, including the adjacency lists.
+				if(compiledConfigFile != null) {
+					loadCompiledConfig();
+				}
+				else {
+					//Load the setup file first.
+					loadSetupConfig();
+					
+					//Then generate the game board based on the rooms specified in the setup file
+					loadLayoutConfig();
+					
+					//Once the files are loaded properly, parse the newly generated board and build adjacency lists.
+					setAdjLists();
+				}
+				
+				//With the adjacency lists in place, prepare the target search and calculate the targets for every cell and roll.
+				targetFinder = new TargetFinder(boardGraph);
+				targetTable = new TargetTable(targetFinder);
+				roomDistances = new RoomDistances(boardGraph, roomMap);
+				
+				//Save everything that only depends on the files for the next time they are loaded.
+				if(templateKey != null) {
+					BoardTemplate.put(templateKey, new BoardTemplate(roomMap, gameBoard, boardGraph, targetFinder, targetTable, roomDistances, deck, registry, players));
+				}
+			}
+			//Occupancy belongs to this game, so the target cache always starts empty.
+			claimCells();
+			targetCache = new TargetCache(boardGraph, MAX_CACHED_ROLL);
 			
 			//Deal the cards and determine the solution to the game.
 			dealCards();
+			
+			//Give each player a generator of its own, split off in turn order so the same seed always gives each player the same one.
+			for(Player player : players) {
+				player.setRandom(random.split());
+			}
 		}
 		//In the event of a bad input file, print out the error message to the console, and write the error to a log.
 		catch (BadConfigFormatException e) {
@@ -106,148 +256,56 @@ public class Board extends JPanel implements MouseListener{
 		}
 	}
 	
+	/**
+	 * Describes the options that change what is built from the board's files, so a template built with other options isn't reused.
+	 * @return - The adjacency options, as a string.
+	 */
+	private String getLoadOptions() {
+		return "lazy=" + lazyAdjacency + ",parallel=" + parallelAdjacency;
+	}
+	
+	/**
+	 * Loads the setup and layout files and builds the adjacency lists, without starting a game: no template is used or saved, no cards are
+	 * dealt, and a bad file is thrown rather than only logged. Used by BoardFile.compile() on a board of its own.
+	 * @throws BadConfigFormatException - If the setup or layout file is bad.
+	 */
+	void loadFiles() throws BadConfigFormatException {
+		roomMap = new HashMap<Character, Room>();
+		players = new ArrayList<Player>();
+		deck = new ArrayList<Card>();
+		boardGraph = null;
+		loadSetupConfig();
+		loadLayoutConfig();
+		setAdjLists();
+	}
+	
 	/**
 	 * A void method used to read in the provided room configuration file, and populate roomMap with new room objects. 
 	 * @throws BadConfigFormatException - In the event that the setup file is bad, the program will throw an exception with a message explaining the problem.
 	 */
 	public void loadSetupConfig() throws BadConfigFormatException {
-		try {
-			//Open the file and prepare a string to read the line into. Add a line counter in case of errors.
-			FileReader reader = new FileReader(setupConfigFile);
-			Scanner scanner = new Scanner(reader);
-			String line;
-			int i = 0;
-			
-			//Read all lines in the file.
-			while(scanner.hasNextLine()) {
-				line = scanner.nextLine();
-				
-				//If the line is null, the bottom of the file has been reached.
-				if(line.length() == 0) {
-					scanner.close();
-					break;
-				}
-				
-				//If the line doesn't start with a slash indicating that it's a comment, split it.
-				if(!(line.charAt(0) == '/')) {
-					String[] data = line.split(",");
-
-					//Pre-declare a few commonly used variables.
-					Room room;
-					char initial;
-					//Since the 2nd entry is always a name, format it here to remove the space at the beginning.
-					String name = data[1].replaceFirst("\\s+","");
-					switch(data[0]) {
-					
-					//If the entry declares a room
-					case "Room":
-						//Verify the entry has the proper length
-						if(data.length == 3) {
-							//Create a new room and put it in the map with the key being it's initial.
-							room = new Room(name);
-							initial = data[2].replaceFirst("\\s+","").charAt(0);
-							roomMap.put(initial, room);
-
-							//Create a room card, and add it to the deck.
-							deck.add(new Card(name, CardType.ROOM));
-						}
-						//Throw an exception if the entry is not the correct length.
-						else {
-							scanner.close();
-							throw new BadConfigFormatException("Invalid format in " + setupConfigFile + " on line " + i + ": Line contains the wrong number of entries for a Room object.");
-						}
-						break;
-						
-					//If the entry declares a non-room space
-					case "Space":
-						//Verify the entry has the proper length
-						if(data.length == 3) {
-							//Create a new room and put it in the map with the key being it's initial.
-							room = new Room(name);
-							initial = data[2].replaceFirst("\\s+","").charAt(0);
-							roomMap.put(initial, room);
-						}
-						//Throw an exception if the entry is not the correct length.
-						else {
-							scanner.close();
-							throw new BadConfigFormatException("Invalid format in " + setupConfigFile + " on line " + i + ": Line contains the wrong number of entries for a Space object.");
-						}
-						break;
-						
-					//If the entry declares a weapon
-					case "Weapon":
-						//Verify the entry has the proper length
-						if(data.length == 2) {
-							//Add a new weapon card to the deck.
-							deck.add(new Card(name, CardType.WEAPON));
-						}
-						//Throw an exception if the entry is not the correct length.
-						else {
-							scanner.close();
-							throw new BadConfigFormatException("Invalid format in " + setupConfigFile + " on line " + i + ": Line contains the wrong number of entries for a Weapon object.");
-						}
-						break;
-						
-					case "Player":
-						
-						if(data.length == 7) {
-							//Create a new person object
-							//Read in all the RGB values the file provides, and convert them to ints.
-							int redVal = Integer.parseInt(data[2].replaceFirst("\\s+","").replace(",",""));
-							int greenVal = Integer.parseInt(data[3].replaceFirst("\\s+","").replace(",",""));
-							int blueVal = Integer.parseInt(data[4].replaceFirst("\\s+","").replace(",",""));
-							int playerRow = Integer.parseInt(data[5].replaceFirst("\\s+","").replace(",",""));
-							int playerCol = Integer.parseInt(data[6].replaceFirst("\\s+","").replace(",",""));
-							//Create the new player object, saved as humanPlayer
-							humanPlayer = new HumanPlayer(name, new Color(redVal, greenVal, blueVal), playerRow, playerCol);
-							players.add(humanPlayer);
-							
-							//Add a new weapon card to the deck.
-							deck.add(new Card(name, CardType.PERSON));
-							
-
-						}
-						//Throw an exception if the entry is not the correct length.
-						else {
-							scanner.close();
-							throw new BadConfigFormatException("Invalid format in " + setupConfigFile + " on line " + i + ": Line contains the wrong number of entries for a Player object.");
-						}
-						break;
-						
-					case "NPC":
-						if(data.length == 7) {
-							//Create a new person object
-							//Read in all the RGB values the file provides, and convert them to ints.
-							int redVal = Integer.parseInt(data[2].replaceFirst("\\s+","").replace(",",""));
-							int greenVal = Integer.parseInt(data[3].replaceFirst("\\s+","").replace(",",""));
-							int blueVal = Integer.parseInt(data[4].replaceFirst("\\s+","").replace(",",""));
-							int playerRow = Integer.parseInt(data[5].replaceFirst("\\s+","").replace(",",""));
-							int playerCol = Integer.parseInt(data[6].replaceFirst("\\s+","").replace(",",""));
-							//Create the new player object.
-							players.add(new ComputerPlayer(name, new Color(redVal, greenVal, blueVal), playerRow, playerCol));
-							
-							//Add a new weapon card to the deck.
-							deck.add(new Card(name, CardType.PERSON));
-						}
-						//Throw an exception if the entry is not the correct length.
-						else {
-							scanner.close();
-							throw new BadConfigFormatException("Invalid format in " + setupConfigFile + " on line " + i + ": Line contains the wrong number of entries for an NPC object.");
-						}
-						break;
-						
-					default:
-						throw new BadConfigFormatException("Attempted to specify tile of unknown type: " + data[0] + " in " + setupConfigFile + " On line " + i);
-					}
-
-				}
-			//Increment the counter and close the file.
-			i++;
-			}
+		//Read every room, card, and player from the file in one pass.
+		SetupParser parser = new SetupParser(setupConfigFile);
+		parser.parse(roomMap, deck, players);
+		if(parser.getHumanPlayer() != null) {
+			humanPlayer = parser.getHumanPlayer();
 		}
-		//If the file is not found, throw a new BadConfigFormatException.
-		catch(FileNotFoundException e){
-			throw new BadConfigFormatException("File 'data/" + setupConfigFile + " not found. Please check the data directory.");
+		useRegistry(parser.getRegistry());
+	}
+	
+	/**
+	 * Makes the registry of a newly loaded deck the board's, and the active one if this is the game's board, and gives each player the id of
+	 * their person card in it.
+	 * @param newRegistry - The registry of the deck that was loaded.
+	 */
+	private void useRegistry(CardRegistry newRegistry) {
+		registry = newRegistry;
+		//Only the game's board decides which registry cards are looked up in, so a board loaded on the side doesn't disturb the game.
+		if(this == boardInstance) {
+			CardRegistry.setActive(registry);
+		}
+		for(Player player : players) {
+			player.setCardId(registry.findId(player.getName(), CardType.PERSON));
 		}
 	}
 	
@@ -256,176 +314,436 @@ public class Board extends JPanel implements MouseListener{
 	 * @throws BadConfigFormatException - In the event that the setup file is bad, the program will throw an exception with a message explaining the problem.
 	 */
 	public void loadLayoutConfig() throws BadConfigFormatException {
+		//Read the file straight into the grid of cells, then take the size of the board from it.
+		LayoutParser parser = new LayoutParser(layoutConfigFile, setupConfigFile, roomMap);
+		parser.setParallel(parallelLoading);
+		gameBoard = parser.parse();
+		boardHeight = gameBoard.length;
+		boardWidth = gameBoard[0].length;
+	}
+	
+	/**
+	 * A method to set every tile in the gameBoard's adjacency lists. Non-central room tiles and unused tiles will have empty adjacency lists. Walkway tiles will only hold adjacencies with other walkway tiles,
+	 * Unless the walkway is a door, in which case it will also hold it's corresponding room's center tile. Room centers will hold adjacency to all doors connecting to the room, and the room center of any rooms
+	 * linked by secret passage. The lists are written straight into the board's compact graph, and each cell's list is a view of it. No cell
+	 * ever holds a set of its own. If parallel adjacency is turned on, the rows are split into bands that are built at the same time. See setParallelAdjacency(). If lazy
+	 * adjacency is turned on, no lists are built here, and each cell's list is made from the board's lazy graph when it is first asked for.
+	 * See setLazyAdjacency().
+	 */
+	public void setAdjLists() {
+		if(lazyAdjacency) {
+			boardGraph = new LazyBoardGraph(gameBoard, roomMap);
+			return;
+		}
+		
+		//Build the compact graph straight from the layout, and let each cell read its neighbors from there.
+		boardGraph = new CompactBoardGraph(gameBoard, roomMap, parallelAdjacency && boardHeight > MIN_BAND_ROWS);
+		setAdjacencyViews();
+	}
+	
+	/**
+	 * Points every cell with neighbors at its slice of the board's graph. Cells without neighbors are left with none.
+	 */
+	private void setAdjacencyViews() {
+		for(int id = 0; id < boardGraph.getCellCount(); id++) {
+			if(boardGraph.getDegree(id) > 0) {
+				boardGraph.getCell(id).setAdjacencyView(boardGraph.getAdjacencyView(id));
+			}
+		}
+	}
+	
+	/**
+	 * Tells every cell it belongs to this board, so a cell's occupancy changes reach this board's target cache even if it isn't the game's
+	 * board.
+	 */
+	private void claimCells() {
+		for(int id = 0; id < boardGraph.getCellCount(); id++) {
+			boardGraph.getCell(id).setBoard(this);
+		}
+	}
+	
+	/**
+	 * Starts a new game on a cached template. The game gets its own cells, rooms, players, and target search, and shares only what the
+	 * template can't change, so any other board on the same template is unaffected.
+	 * @param template - A template for the board's current files.
+	 */
+	private void useTemplate(BoardTemplate template) {
+		gameBoard = template.createCells();
+		boardHeight = gameBoard.length;
+		boardWidth = gameBoard[0].length;
+		roomMap = template.createRooms(gameBoard);
+		boardGraph = template.createGraph(gameBoard, roomMap);
+		if(!boardGraph.isLazy()) {
+			setAdjacencyViews();
+		}
+		targetFinder = template.createTargetFinder(boardGraph);
+		targetTable = template.createTargetTable(targetFinder);
+		roomDistances = template.createRoomDistances(boardGraph);
+		deck.addAll(template.getCards());
+		players.addAll(template.createPlayers());
+		for(Player player : players) {
+			if(player instanceof HumanPlayer) {
+				humanPlayer = player;
+			}
+		}
+		useRegistry(template.getRegistry());
+	}
+	
+	/**
+	 * A method used to load a compiled board file in place of the setup and layout files. The rooms, cells, adjacency graph, cards, and players
+	 * are all read from the file, so neither file is parsed and setAdjLists() is not needed.
+	 * @throws BadConfigFormatException - If the file is missing, corrupt, or was compiled by a different version.
+	 */
+	public void loadCompiledConfig() throws BadConfigFormatException {
+		BoardFile file = new BoardFile(compiledConfigFile);
+		roomMap.putAll(file.getRooms());
+		deck.addAll(file.getCards());
+		players.addAll(file.getPlayers());
+		humanPlayer = file.getHumanPlayer();
+		useRegistry(file.getRegistry());
+		gameBoard = file.getCells();
+		boardHeight = gameBoard.length;
+		boardWidth = gameBoard[0].length;
+		boardGraph = file.getGraph();
+		setAdjacencyViews();
+	}
+	
+	/**
+	 * Reloads the layout file into the game in progress. The new layout is compared cell by cell with the current one. If only walkways,
+	 * doors, plain room cells, and labels changed, only those cells are replaced, only the adjacency lists around them are recalculated, and
+	 * only the target table entries that could reach them are calculated again; if a room center or secret passage changed, or the board
+	 * changed size, the whole layout is rebuilt. Either way the room distances and target cache are recalculated for the new layout, and the
+	 * players keep their hands and positions. A player left on a
+	 * room cell that isn't the center is moved to the center, and a player left off the board is moved onto its edge. When a game window is
+	 * open this should be called on the event dispatch thread, as ConfigWatcher does.
+	 * @throws BadConfigFormatException - If the new layout can't be loaded, or has a door or secret passage that leads to a room without a
+	 * center. The current layout is kept.
+	 */
+	public void reloadLayout() throws BadConfigFormatException {
+		//Parse into copies of the rooms, so nothing changes until the new layout is known to be good.
+		Map<Character, Room> newRooms = new HashMap<Character, Room>();
+		for(Map.Entry<Character, Room> entry : roomMap.entrySet()) {
+			newRooms.put(entry.getKey(), new Room(entry.getValue().getName()));
+		}
+		LayoutParser parser = new LayoutParser(layoutConfigFile, setupConfigFile, newRooms);
+		parser.setParallel(parallelLoading);
+		BoardCell[][] newBoard = parser.parse();
+		checkRoomLinks(newBoard, newRooms);
+		
+		//The template for the old files no longer matches them, so it is dropped rather than kept until it is the least recently used.
+		if(templateKey != null) {
+			BoardTemplate.remove(templateKey);
+			templateKey = null;
+		}
+		//No search may run while the cells, graph, and table are being replaced.
+		targetLock.writeLock().lock();
 		try {
-			//Open the layout file and create an ArrayList of strings to hold each line in the file.
-			FileReader reader = new FileReader(layoutConfigFile);
-			Scanner scanner = new Scanner(reader);
-			ArrayList<String> board = new ArrayList<String>();
-
-			//Save each line from the file to board, and close.
-			while(scanner.hasNextLine()) {
-				board.add(scanner.nextLine());
+			//Occupancy is copied into the new cells as they are placed, so the old cache doesn't need to hear about it.
+			targetCache = null;
+			
+			//A lazy graph has nothing to copy, so it is always built again.
+			boolean[] affected = null;
+			if(!lazyAdjacency && newBoard.length == boardHeight && newBoard[0].length == boardWidth) {
+				affected = patchLayout(newBoard, newRooms);
 			}
-			scanner.close();
-
-			//The height of the board is the number of rows, and the width is the length of each row.
-			boardHeight = board.size();
-			boardWidth = board.get(0).split(",").length;
-
-			//Iterate through board and begin creating tiles. Store them in gameBoard. Initialize a line counter.
-			gameBoard = new BoardCell[boardHeight][boardWidth];
-			int i = 0;
-			for(String line : board) {
-				//Split the line into tiles and ensure there are the right amount of tiles specified.
-				String[] data = line.split(",");
-
-				if(data.length == boardWidth) {
-					for(int j = 0; j < data.length; j++) {
-						//Put a new cell in gameBoard at i,j
-						gameBoard[i][j] = new BoardCell(i,j);
-
-						switch(data[j].charAt(0)) {
-						case 'X':
-							gameBoard[i][j].setUnused();
-							break;
-						case 'W':
-							gameBoard[i][j].setWalkway();
-
-							//Check to see if it's a doorway.
-							if(data[j].length() == 2) {
-								char direction = data[j].charAt(1);
-
-								//Set the door direction to the indicated direction.
-								switch(direction){
-								case '^':
-									gameBoard[i][j].setDoor(DoorDirection.UP);
-									break;
-								case '<':
-									gameBoard[i][j].setDoor(DoorDirection.LEFT);
-									break;
-								case '>':
-									gameBoard[i][j].setDoor(DoorDirection.RIGHT);
-									break;
-								case 'v':
-									gameBoard[i][j].setDoor(DoorDirection.DOWN);
-									break;
-								}
-							}
-							break;
-
-						default:
-							char Initial = data[j].charAt(0);
-							Room room = roomMap.get(Initial);
-							//Make sure the room is specified in roomMap.
-							if(!(room == null)) {
-								//If the room tile has only one character, it's just an empty room tile.
-								if(data[j].length() == 1) {
-									gameBoard[i][j].setRoom(Initial, false, false);
-								}
-
-								else {
-									//If the room cell has two character specified, determine what type of cell it is. 
-									switch(data[j].charAt(1)) {
-
-									//If it's a center cell, set it as such and save it in the room object.
-									case '*':
-										gameBoard[i][j].setRoom(Initial, false, true);
-										room.setCenterCell(gameBoard[i][j]);
-										break;
-
-										//If it's a label cell, set it as such and save it in the room object.
-									case '#':
-										gameBoard[i][j].setRoom(Initial, true, false);
-										room.setLabelCell(gameBoard[i][j]);
-										break;
-
-										//If it's a secret passage, determine if the secret passage is valid.
-									default:
-										room = roomMap.get(data[j].charAt(1));
-										//If it's a valid secret passage, set the cells secretPassage char.
-										if(!(room == null)) {
-											gameBoard[i][j].setRoom(Initial, false, false);
-											gameBoard[i][j].setSecretPassage(data[j].charAt(1));
-										}
-										//If it's not, throw a new exception.
-										else {
-											throw new BadConfigFormatException("Invalid line format on line " + i + " in " + layoutConfigFile + ", Secret passage to invalid room specified.");
-										}
-										break;
-									}
-								}
-							}
-							else {
-								throw new BadConfigFormatException("Invalid line format on line " + i + " in " + layoutConfigFile + ", Invalid room of type " + Initial + " specified.");
-							}
-						}
+			else {
+				rebuildLayout(newBoard, newRooms);
+			}
+			placePlayers();
+			//Entries of the old table that didn't touch any changed cell are kept.
+			targetFinder = new TargetFinder(boardGraph);
+			targetTable = new TargetTable(targetFinder, (affected == null) ? null : targetTable, affected);
+			roomDistances = new RoomDistances(boardGraph, roomMap);
+			claimCells();
+			targetCache = new TargetCache(boardGraph, MAX_CACHED_ROLL);
+		}
+		finally {
+			targetLock.writeLock().unlock();
+		}
+		repaint();
+	}
+	
+	/**
+	 * Reloads the setup file into the game in progress. If the rooms, cards, and players it declares are the same as before, the layout is
+	 * reloaded, since it may depend on the setup file. Otherwise the cards in the players' hands would no longer match the deck, so nothing is
+	 * changed and a new game must be started with initialize().
+	 * @return - True if the setup file could be applied to the game in progress.
+	 * @throws BadConfigFormatException - If the setup file or layout file can't be loaded. The current board is kept.
+	 */
+	public boolean reloadSetup() throws BadConfigFormatException {
+		Map<Character, Room> newRooms = new HashMap<Character, Room>();
+		List<Card> newDeck = new ArrayList<Card>();
+		List<Player> newPlayers = new ArrayList<Player>();
+		new SetupParser(setupConfigFile).parse(newRooms, newDeck, newPlayers);
+		
+		//Compare the rooms by initial and name, the cards by name and type, and the players by name, all in order. The new cards are in a
+		//registry of their own, so they are compared by name rather than by id.
+		if(!newRooms.keySet().equals(roomMap.keySet()) || newDeck.size() != deck.size() || newPlayers.size() != players.size()) {
+			return false;
+		}
+		for(Map.Entry<Character, Room> entry : newRooms.entrySet()) {
+			if(!entry.getValue().getName().equals(roomMap.get(entry.getKey()).getName())) {
+				return false;
+			}
+		}
+		for(int k = 0; k < deck.size(); k++) {
+			if(newDeck.get(k).getType() != deck.get(k).getType() || !newDeck.get(k).getName().equals(deck.get(k).getName())) {
+				return false;
+			}
+		}
+		for(int k = 0; k < players.size(); k++) {
+			if(!newPlayers.get(k).getName().equals(players.get(k).getName())) {
+				return false;
+			}
+		}
+		reloadLayout();
+		return true;
+	}
+	
+	/**
+	 * Makes sure every door leads into a room with a center, and every secret passage connects two rooms with centers, since the adjacency
+	 * lists can't be built otherwise.
+	 * @param newBoard - The cells of a newly parsed layout.
+	 * @param newRooms - The rooms, with the centers the new layout set.
+	 * @throws BadConfigFormatException - If a door or secret passage has no center to lead to.
+	 */
+	private void checkRoomLinks(BoardCell[][] newBoard, Map<Character, Room> newRooms) throws BadConfigFormatException {
+		for(int i = 0; i < newBoard.length; i++) {
+			for(int j = 0; j < newBoard[i].length; j++) {
+				BoardCell cell = newBoard[i][j];
+				if(cell.isDoorway()) {
+					int row = i, col = j;
+					switch(cell.getDoorDirection()) {
+					case UP:
+						row--;
+						break;
+					case DOWN:
+						row++;
+						break;
+					case LEFT:
+						col--;
+						break;
+					default:
+						col++;
+						break;
+					}
+					if(row >= 0 && row < newBoard.length && col >= 0 && col < newBoard[i].length && newBoard[row][col].getisInRoom()
+							&& newRooms.get(newBoard[row][col].getInitial()).getCenterCell() == null) {
+						throw new BadConfigFormatException("Invalid layout in " + layoutConfigFile + ", door on line " + i + " leads into a room without a center.");
 					}
 				}
-
-				//Throw an error if an invalid entry is detected.
-				else {
-					throw new BadConfigFormatException("Invalid line format on line " + i + " in " + layoutConfigFile + ", wrong number of tiles specified.");
+				else if(cell.getSecretPassage() != 'X' && (newRooms.get(cell.getInitial()).getCenterCell() == null
+						|| newRooms.get(cell.getSecretPassage()).getCenterCell() == null)) {
+					throw new BadConfigFormatException("Invalid layout in " + layoutConfigFile + ", secret passage on line " + i + " connects a room without a center.");
 				}
-				i++;
 			}
 		}
-		//If the file is not found, throw a new BadConfigFormatException.
-		catch(FileNotFoundException e){
-			throw new BadConfigFormatException("File 'data/" + setupConfigFile + " not found. Please check the data directory.");
+	}
+	
+	/**
+	 * Replaces the whole layout with a new one, building every adjacency list again. Cells that were occupied are occupied in the new layout,
+	 * if they are still on the board.
+	 * @param newBoard - The cells of the new layout.
+	 * @param newRooms - The rooms, with the centers and labels the new layout set.
+	 */
+	private void rebuildLayout(BoardCell[][] newBoard, Map<Character, Room> newRooms) {
+		for(int i = 0; i < Math.min(boardHeight, newBoard.length); i++) {
+			for(int j = 0; j < Math.min(boardWidth, newBoard[i].length); j++) {
+				newBoard[i][j].setOccupied(gameBoard[i][j].getOccupied());
+			}
 		}
+		gameBoard = newBoard;
+		boardHeight = gameBoard.length;
+		boardWidth = gameBoard[0].length;
+		for(Map.Entry<Character, Room> entry : newRooms.entrySet()) {
+			roomMap.get(entry.getKey()).setCenterCell(entry.getValue().getCenterCell());
+			roomMap.get(entry.getKey()).setLabelCell(entry.getValue().getLabelCell());
+		}
+		setAdjLists();
 	}
 	
 	/**
-	 * A method to set every tile in the gameBoard's adjacency lists. Non-central room tiles and unused tiles will have empty adjacency lists. Walkway tiles will only hold adjacencies with other walkway tiles,
-	 * Unless the walkway is a door, in which case it will also hold it's corresponding room's center tile. Room centers will hold adjacency to all doors connecting to the room, and the room center of any rooms
-	 * linked by secret passage. 
+	 * Replaces only the cells that changed in a layout of the same size. Each walkway next to or on a changed cell gets a new adjacency list,
+	 * and any room center it links to or used to link to is updated, while every other cell keeps its list. If a room center or a secret
+	 * passage changed, the links between centers are affected too, so the whole layout is rebuilt instead.
+	 * @param newBoard - The cells of the new layout.
+	 * @param newRooms - The rooms, with the centers and labels the new layout set.
+	 * @return - Whether each cell's adjacency list changed, indexed by cell, or null if the whole layout was rebuilt.
 	 */
-	public void setAdjLists() {
-		//Iterate through every tile.
+	private boolean[] patchLayout(BoardCell[][] newBoard, Map<Character, Room> newRooms) {
+		//Find the cells that changed.
+		boolean[] changed = new boolean[boardHeight * boardWidth];
+		int changedCount = 0;
 		for(int i = 0; i < boardHeight; i++) {
 			for(int j = 0; j < boardWidth; j++) {
-				//All walkway and door tiles will have an adjacency list.
-				BoardCell current = gameBoard[i][j];
-				if(current.getInitial() == 'W') {
-					//Pass in a DoorDirection to specify the direction the next tile is from the current tile, useful for linking doors to the proper rooms.
-					
-					//Check tile above.
-					if(i > 0) {
-						checkAdjTile(current, i - 1, j, DoorDirection.UP);
-					}
-					
-					//Check tile below
-					if(i < boardHeight - 1) {
-						checkAdjTile(current, i + 1, j, DoorDirection.DOWN);
-					}
-					
-					//Check tile to the left
-					if(j > 0) {
-						checkAdjTile(current, i, j - 1, DoorDirection.LEFT);
+				BoardCell oldCell = gameBoard[i][j], newCell = newBoard[i][j];
+				if(oldCell.getInitial() == newCell.getInitial() && oldCell.getDoorDirection() == newCell.getDoorDirection()
+						&& oldCell.isRoomCenter() == newCell.isRoomCenter() && oldCell.isLabel() == newCell.isLabel()
+						&& oldCell.getSecretPassage() == newCell.getSecretPassage()) {
+					continue;
+				}
+				if(oldCell.isRoomCenter() || newCell.isRoomCenter() || oldCell.getSecretPassage() != 'X' || newCell.getSecretPassage() != 'X') {
+					rebuildLayout(newBoard, newRooms);
+					return null;
+				}
+				changed[i * boardWidth + j] = true;
+				changedCount++;
+			}
+		}
+		if(changedCount == 0) {
+			return changed;
+		}
+		
+		//Put the new cells in place of the ones that changed.
+		BoardGraph oldGraph = boardGraph;
+		for(int id = 0; id < changed.length; id++) {
+			if(changed[id]) {
+				int i = id / boardWidth, j = id % boardWidth;
+				newBoard[i][j].setOccupied(gameBoard[i][j].getOccupied());
+				gameBoard[i][j] = newBoard[i][j];
+			}
+		}
+		for(Map.Entry<Character, Room> entry : newRooms.entrySet()) {
+			BoardCell label = entry.getValue().getLabelCell();
+			roomMap.get(entry.getKey()).setLabelCell((label == null) ? null : gameBoard[label.getRow()][label.getCol()]);
+		}
+		
+		//Every changed cell, and every cell next to one, may have different neighbors. Room centers are only changed through the links below.
+		int[][] replaced = new int[changed.length][];
+		Map<Integer, List<Integer>> centerLinks = new HashMap<Integer, List<Integer>>();
+		for(int id = 0; id < changed.length; id++) {
+			if(!changed[id]) {
+				continue;
+			}
+			int i = id / boardWidth, j = id % boardWidth;
+			int[][] nearby = {{i, j}, {i - 1, j}, {i + 1, j}, {i, j - 1}, {i, j + 1}};
+			for(int[] position : nearby) {
+				if(position[0] < 0 || position[0] >= boardHeight || position[1] < 0 || position[1] >= boardWidth) {
+					continue;
+				}
+				int near = position[0] * boardWidth + position[1];
+				if(replaced[near] != null || oldGraph.isRoomCenter(near)) {
+					continue;
+				}
+				replaced[near] = LazyBoardGraph.findNeighbors(gameBoard, roomMap, position[0], position[1]);
+				//Note the centers this cell stops or starts linking to, so the center's list can be changed to match.
+				for(int k = 0; k < oldGraph.getDegree(near); k++) {
+					if(oldGraph.isRoomCenter(oldGraph.getNeighbor(near, k))) {
+						centerLinks.computeIfAbsent(oldGraph.getNeighbor(near, k), key -> new ArrayList<Integer>()).add(near);
 					}
-					
-					//Check tile to the right
-					if(j < boardWidth - 1) {
-						checkAdjTile(current, i, j + 1, DoorDirection.RIGHT);
+				}
+				for(int next : replaced[near]) {
+					if(oldGraph.isRoomCenter(next)) {
+						centerLinks.computeIfAbsent(next, key -> new ArrayList<Integer>()).add(near);
 					}
 				}
-				
-				//Otherwise, if the tile has a secret passage, link the secret passage tile of this room to the center of the other room.
-				else if (!(current.getSecretPassage() == 'X')){
-					BoardCell secret = getRoom(current.getSecretPassage()).getCenterCell();
-					BoardCell center = getRoom(current).getCenterCell();
-					secret.addAdjacency(center);
+			}
+		}
+		
+		//Each affected center keeps its neighbors that weren't affected, then links to the affected cells that now link to it.
+		for(Map.Entry<Integer, List<Integer>> entry : centerLinks.entrySet()) {
+			int center = entry.getKey();
+			List<Integer> neighbors = new ArrayList<Integer>();
+			for(int k = 0; k < oldGraph.getDegree(center); k++) {
+				int next = oldGraph.getNeighbor(center, k);
+				if(replaced[next] == null || oldGraph.isRoomCenter(next)) {
+					neighbors.add(next);
+				}
+			}
+			for(int near : entry.getValue()) {
+				if(!neighbors.contains(near) && contains(replaced[near], center)) {
+					neighbors.add(near);
+				}
+			}
+			replaced[center] = new int[neighbors.size()];
+			for(int k = 0; k < neighbors.size(); k++) {
+				replaced[center][k] = neighbors.get(k);
+			}
+		}
+		
+		boardGraph = new CompactBoardGraph(oldGraph, gameBoard, replaced);
+		//Cells whose lists changed need views of the new graph, including cells that no longer have any neighbors.
+		boolean[] affected = new boolean[replaced.length];
+		for(int id = 0; id < replaced.length; id++) {
+			affected[id] = replaced[id] != null;
+			if(affected[id] || boardGraph.getDegree(id) > 0) {
+				boardGraph.getCell(id).setAdjacencyView(boardGraph.getAdjacencyView(id));
+			}
+		}
+		return affected;
+	}
+	
+	/**
+	 * Returns true if an array holds a value.
+	 * @param values - The array to search.
+	 * @param value - The value to find.
+	 * @return - True if the value is in the array.
+	 */
+	private static boolean contains(int[] values, int value) {
+		for(int v : values) {
+			if(v == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Makes sure every player is somewhere they can move from after the layout changes. A player off the edge of the board is moved onto the
+	 * edge, and a player on a room cell that isn't the center is moved to the center. Every player is placed on a cell of the current board,
+	 * since rebuilding or patching the layout replaces the cells. A player who is moved empties the cell they were on, and the cell of every
+	 * player who was standing on an occupied cell is occupied again afterwards, in case a player who moved was sharing it.
+	 */
+	private void placePlayers() {
+		boolean[] occupied = new boolean[players.size()];
+		for(int k = 0; k < players.size(); k++) {
+			Player player = players.get(k);
+			boolean onBoard = player.getRow() < boardHeight && player.getCol() < boardWidth;
+			occupied[k] = onBoard && gameBoard[player.getRow()][player.getCol()].getOccupied();
+			BoardCell cell = gameBoard[Math.min(player.getRow(), boardHeight - 1)][Math.min(player.getCol(), boardWidth - 1)];
+			if(cell.getisInRoom() && !cell.isRoomCenter() && getRoom(cell).getCenterCell() != null) {
+				cell = getRoom(cell).getCenterCell();
+			}
+			if(cell.getRow() != player.getRow() || cell.getCol() != player.getCol()) {
+				if(onBoard) {
+					gameBoard[player.getRow()][player.getCol()].setOccupied(false);
 				}
+				occupied[k] = true;
+			}
+			player.setPosition(cell);
+		}
+		for(int k = 0; k < players.size(); k++) {
+			if(occupied[k]) {
+				players.get(k).getPosition().setOccupied(true);
 			}
 		}
 	}
 	
 	/**
-	 * A method used to determine if a tile will be a valid adjacency to the current tile.
+	 * Returns the path of the layout file, for watching it for changes.
+	 * @return - The path of the layout file.
+	 */
+	String getLayoutConfigFile() {
+		return layoutConfigFile;
+	}
+	
+	/**
+	 * Returns the path of the setup file, for watching it for changes.
+	 * @return - The path of the setup file.
+	 */
+	String getSetupConfigFile() {
+		return setupConfigFile;
+	}
+	
+	/**
+	 * A method used to determine if a tile will be a valid adjacency to the current tile, and if so, adds it to the current tile's adjacency
+	 * list. setAdjLists() builds the board's graph without this, and cells that belong to a board can't have their lists changed, so this is
+	 * only of use for cells that haven't been added to a board yet.
 	 * @param current - The board cell that will have it's adjacency list added to if the tile tested is valid.
 	 * @param i - The row position of the cell that is being tested for valid adjacency.
 	 * @param j - The column position of the cell that is being tested for valid adjacency.
 	 * @param direction - The direction that the tile being tested is in with respect to the current tile. 
+	 * @throws IllegalStateException - If either cell's adjacency is read from a board's graph.
 	 */
 	public void checkAdjTile(BoardCell current, int i, int j, DoorDirection direction) {
 		BoardCell nextTo = gameBoard[i][j];
@@ -454,139 +772,201 @@ public class Board extends JPanel implements MouseListener{
 	 */
 	public void calcTargets(BoardCell startCell, int length) {
 		targets.clear();
-		visited.clear();
-		calcTargetsRecursive(startCell, length);
+		if(targetFinder == null) {
+			return;
+		}
+		int start = targetFinder.getIndex(startCell);
+		if(start < 0) {
+			return;
+		}
+		//This fills in the table and the cache, so no buffered search may read them at the same time.
+		targetLock.writeLock().lock();
+		try {
+			//Rolls outside of what the cache holds are always searched for.
+			if(!targetCache.accepts(length)) {
+				targetFinder.findTargets(start, length, true, targetBits, null);
+				targetFinder.addCells(targetBits, targets);
+				return;
+			}
+			//If nothing these targets depend on has changed since they were calculated, use them again.
+			if(targetCache.getTargets(start, length, targets)) {
+				return;
+			}
+			//If no player is standing anywhere the table's paths go, the precomputed targets are the answer. On large boards the table is only
+			//filled in for cells that have been started from.
+			targetTable.fillEntries(start);
+			if(targetTable.hasEntry(start, length) && !targetTable.isBlocked(start, length, targetCache.getOccupied())) {
+				targetCache.put(start, length, targetTable.getTargets(start, length), targetTable.getFootprint(start, length));
+				targetFinder.addCells(targetTable.getTargets(start, length), targets);
+				return;
+			}
+			//Otherwise, search the board from the starting cell, recording every cell the search looks at.
+			footprintBits.clear();
+			targetFinder.findTargets(start, length, true, targetBits, footprintBits);
+			targetCache.put(start, length, targetBits, footprintBits);
+			targetFinder.addCells(targetBits, targets);
+		}
+		finally {
+			targetLock.writeLock().unlock();
+		}
 	}
 	
 	/**
-	 * Moves through the board, checking for all possible paths a player could take away from the starting cell, and
-	 * adds all possible locations to targets. Adds tiles that have already been visited by the calculation function, 
-	 * but can't be landed on by the player, to visited.
-	 * @param startCell - The starting position to calculate a roll from.
-	 * @param length - The length of the roll, an integer from 0-6.
+	 * A method to calculate targets into a buffer owned by the caller, rather than the board's shared target set. Uses the precomputed table
+	 * when no player is in the way and otherwise searches with the buffer's own scratch space. It does not change the board's target cache,
+	 * so once the buffer has grown to fit, a call allocates nothing. Several buffers can be filled at once from different threads: they
+	 * only share the board's read lock, while a player moving, calcTargets(BoardCell, int), or a reload waits for them, and they wait for it.
+	 * @param startCell - The board cell to start on
+	 * @param length - The length of the roll, as an integer.
+	 * @param buffer - The buffer to write the targets into. Its previous contents are replaced.
+	 * @return - The number of targets found.
 	 */
-	public void calcTargetsRecursive(BoardCell startCell, int length) {
-		//Push the current cell to the top of the visited stack.
-		visited.push(startCell);
-		
-		//If we have made it to the end of our roll, determine if the cell is a valid target
-		if(length == 0) {
-			
-			//If the cell is not occupied, or if it is a room (which can be occupied by multiple people), the cell is a valid target
-			if(!(startCell.getOccupied()) || startCell.isRoomCenter()) {
-				//The cell is added to the targets set.
-				targets.add(startCell);
+	public int calcTargets(BoardCell startCell, int length, TargetBuffer buffer) {
+		buffer.clear();
+		targetLock.readLock().lock();
+		try {
+			if(targetFinder == null) {
+				return 0;
+			}
+			int start = targetFinder.getIndex(startCell);
+			if(start < 0) {
+				return 0;
+			}
+			TargetFinder finder = buffer.getFinder(targetFinder);
+			//The table is only used if its entry already exists, since filling it in needs the write lock.
+			if(targetTable.hasEntry(start, length) && !targetTable.isBlocked(start, length, targetCache.getOccupied())) {
+				return buffer.fill(targetTable.getTargets(start, length));
 			}
+			finder.findTargets(start, length, true, buffer.getBits(), null);
+			return buffer.fillFromBits(buffer.getBits());
 		}
-		
-		//If the end of the roll has not been reached, but the cell is a room center, determine if the roll can stop here (If the room center is the start of the roll, we must leave).
-		else if(startCell.isRoomCenter() && visited.size() > 1){
-			targets.add(startCell);
-		
-		
-		}else{ 
-			//Grab every tile in the cell's adjacency list, and iterate through them.
-			Set<BoardCell> T = startCell.getAdjList();
-			for(BoardCell t : T) {	
-				//If the cell isn't in visited, and is either not occupied or a room center, run calcTargetsRecursive() again.
-				if(!(visited.contains(t)) && (!t.getOccupied() || t.isRoomCenter())) {
-					calcTargetsRecursive(t, length-1);
-				}
+		finally {
+			targetLock.readLock().unlock();
+		}
+	}
+	
+	/**
+	 * Called by a board cell to change its occupancy. The cell and the target cache are changed together while holding the board's write
+	 * lock, so a buffered search on another thread never sees one without the other.
+	 * @param cell - The cell that is becoming occupied or unoccupied.
+	 * @param occupied - The cell's new occupancy.
+	 */
+	void changeOccupancy(BoardCell cell, boolean occupied) {
+		targetLock.writeLock().lock();
+		try {
+			cell.storeOccupied(occupied);
+			occupancyChanged(cell);
+		}
+		finally {
+			targetLock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Throws out any cached targets that depended on a cell, after its occupancy has changed.
+	 * @param cell - The cell that became occupied or unoccupied.
+	 */
+	public void occupancyChanged(BoardCell cell) {
+		if(targetCache != null) {
+			int id = boardGraph.getIndex(cell);
+			if(id >= 0) {
+				targetCache.setOccupied(id, cell.getOccupied());
 			}
 		}
-		//Pop the tile once all the paths branching from below are analyzed so that a different path can use this tile again.
-		visited.pop();
 	}
 	
 	/**
-	 * Method to generate the game's solution, then deal the remaining cards amongst the players.
+	 * Returns the cache of targets calculated under the current occupancy, for checking how often calcTargets() is answered from it.
+	 * @return - The board's target cache, or null if the board has not been initialized.
 	 */
-	public void dealCards() throws BadConfigFormatException{
-		//Declare a set to count how many types of cards the setup file specified.
-		Set<CardType> types = new HashSet<CardType>();
-		for(Card card : deck) {
-			//If a card in the deck specifies a new type of card, add it to the set.
-			if(!(types.contains(card.getType()))) {
-				types.add(card.getType());
+	public TargetCache getTargetCache() {
+		return targetCache;
+	}
+	
+	/**
+	 * A method to calculate the targets for every roll from 1 to maxRoll from the same starting cell. All the rolls are calculated in a
+	 * single walk of the board, which is much cheaper than calling calcTargets() once per roll. Does not change getTargets().
+	 * @param startCell - The board cell to start on
+	 * @param maxRoll - The longest roll to calculate.
+	 * @return - A map from each roll, 1 to maxRoll, to the set of board cells a player could move to with that roll.
+	 */
+	public Map<Integer, Set<BoardCell>> calcTargetsForRolls(BoardCell startCell, int maxRoll) {
+		Map<Integer, Set<BoardCell>> result = new TreeMap<Integer, Set<BoardCell>>();
+		if(targetFinder == null || targetFinder.getIndex(startCell) < 0) {
+			return result;
+		}
+		//Make sure there is a bitset for every roll.
+		if(rollBits.length <= maxRoll) {
+			rollBits = new BitSet[maxRoll + 1];
+			for(int roll = 0; roll <= maxRoll; roll++) {
+				rollBits[roll] = new BitSet();
 			}
 		}
+		//Walk the board once, then copy each roll's targets out.
+		targetFinder.findAllTargets(targetFinder.getIndex(startCell), maxRoll, true, rollBits);
+		for(int roll = 1; roll <= maxRoll; roll++) {
+			Set<BoardCell> rollTargets = new HashSet<BoardCell>();
+			targetFinder.addCells(rollBits[roll], rollTargets);
+			result.put(roll, rollTargets);
+		}
+		return result;
+	}
+	
+	/**
+	 * Method to generate the game's solution, then deal the remaining cards amongst the players.
+	 */
+	public void dealCards() throws BadConfigFormatException{
+		//Group the deck's cards by type. The dealer only ever works on positions in the deck, so the deck itself is not copied or changed.
+		CardDealer dealer = new CardDealer(deck);
 		
 		//Ensure that the setup file specified all 3 types of cards expected: (room, weapon, and person)
-		if(types.size() == 3) {
-			//Allocate memory for the solution set.
-			solution = new HashSet<Card>();
-			//Create a copy of deck
-			ArrayList<Card> deckCopy = new ArrayList<Card>(deck);
-			
-		
-			//Add one card of each type to the set, removing each card from the deck so it is not used again.
-			solution.add(getCardOfType(CardType.ROOM));
-			solution.add(getCardOfType(CardType.PERSON));
-			solution.add(getCardOfType(CardType.WEAPON));
-			
-			Random rand = new Random();
-			for(Player player : players) {
-				for(int i = 0; i < 3; i++) {
-					int random = rand.nextInt(deck.size());
-					player.updateHand(new Card(deck.get(random)));
-					deck.remove(random);
-				}
-			}
-			
-			//Restore the deck.
-			deck = deckCopy;
+		if(dealer.hasEveryType()) {
+			//Draw one card of each type for the solution, then deal the rest amongst the players.
+			solution = SolutionKey.of(dealer.deal(players, random.split(), dealPolicy, handSize));
+			solutionRegistry = registry;
 		}
 		//If not, throw a new BadConfigFormatException.
 		else {
 			throw new BadConfigFormatException("Error: Setup file " + setupConfigFile + " does not specify all 3 required types of cards.");
 		}
-		
-		
 	}
 	
 	/**
-	 * Used to grab a card of a certain type from the deck. Once a random card of the correct type is found, it will remove it from the deck and return a deep copy.
-	 * Will continue to loop until a card of the correct type is found.
-	 * @param type
-	 * @return
+	 * Used to grab a card of a certain type from the deck. A random card of the correct type is chosen from the deck's pool of that type and
+	 * returned. The deck is not changed, so the same card can be chosen again.
+	 * @param type - The type of card to grab.
+	 * @return - The card, or null if the deck has no cards of that type.
 	 */
 	public Card getCardOfType(CardType type) {
-		//Loop until the correct type of card is found.
-		Random rand = new Random();
-		while(true) {
-			//Generate a random number.
-			int random = rand.nextInt(deck.size());
-			
-			//If the card at that index in the deck is the proper type, return it.
-			if(deck.get(random).getType() == type) {
-				//Use a copy constructor to make a deep copy.
-				Card card = new Card(deck.get(random));
-				//Remove the card from the deck so it's not used again.
-				deck.remove(random);
-				//Return the new card.
-				return card;
-			}
+		//The pools are only grouped once, so each draw is a single random pick.
+		if(cardPools == null) {
+			cardPools = new CardDealer(deck);
 		}
+		return cardPools.pick(type, random);
 	}
 	
 	/**
 	 * Returns true if the accusation set contains the same elements as the solution set, indicating the player made
-	 * a correct accusation.
+	 * a correct accusation. An accusation is only wrong about a type of card if it names a different card of that type than the solution.
+	 * Cards from another registry are matched to the solution's cards by name and type.
 	 * @param accusation - A set of cards representing the accusation being made.
-	 * @return
+	 * @return - True if no card in the accusation contradicts the solution.
 	 */
 	public boolean checkAccusation(Set<Card> accusation) {
-		//Iterate through each card in both set
-			for(Card solutionCard : solution) {
-				for(Card accusationCard : accusation) {
-					//If they are the same type of card but are not equal, return false.
-					if(solutionCard.getType().equals(accusationCard.getType()) && !accusationCard.equals(solutionCard)) {
-						return false;
-					}
-				}
+		CardRegistry solutionCards = getSolutionRegistry();
+		List<Card> cards = new ArrayList<Card>(accusation.size());
+		for(Card card : accusation) {
+			Card match = (card.getRegistry() == solutionCards) ? card : solutionCards.findCard(card.getName(), card.getType());
+			if(match != null) {
+				cards.add(match);
 			}
-			//If the loop does not find an incorrect card, return true
-			return true;
+			//A card the solution's deck doesn't have can't be the solution's card of its type.
+			else if(SolutionKey.getId(solution, card.getType()) >= 0) {
+				return false;
+			}
+		}
+		//Pack the accusation the same way as the solution, and compare them with a single comparison when every type is named.
+		return SolutionKey.matches(solution, SolutionKey.of(cards));
 	}
 	
 	/**
@@ -597,19 +977,35 @@ public class Board extends JPanel implements MouseListener{
 	 * @return - The card that debunks the suggestion, null if none found.
 	 */
 	public Card checkSuggestion(Set<Card> suggestion, Player suggester) {
+		CardSet cards = CardSet.of(suggestion);
+		int id = checkSuggestion(cards, suggester);
+		return (id < 0) ? null : cards.getRegistry().getCard(id);
+	}
+	
+	/**
+	 * Checks a suggestion the same way as checkSuggestion(Set, Player), but by card id, so a whole round of disproval is one AND of bitmasks
+	 * per player and creates no objects. The first player in turn order who can disprove the suggestion shows the matching card with the
+	 * lowest id.
+	 * @param suggestion - The cards in the suggestion.
+	 * @param suggester - The person who made the suggestion
+	 * @return - The id of the card that debunks the suggestion, or -1 if none found.
+	 */
+	public int checkSuggestion(CardSet suggestion, Player suggester) {
 		//Check every player's hand
-		for(Player player : players) {
-			//If the player isn't the suggester, and the player has a debunking card
-			if(!player.equals(suggester)) {
-				Card match = player.disproveSuggestion(suggestion);
-				if(match != null) {
+		for(int k = 0; k < players.size(); k++) {
+			Player player = players.get(k);
+			//If the player isn't the suggester, and the player has a debunking card. Players are told apart by their person card's id, or by
+			//identity if they don't have one.
+			if(player != suggester && (player.getCardId() < 0 || player.getCardId() != suggester.getCardId())) {
+				int match = player.getDisprovingId(suggestion);
+				if(match >= 0) {
 					currentDisprover = player;
 					return match;
 				}
 			}
 		}
-		//If nothing is found, return null.
-		return null;
+		//If nothing is found, return -1.
+		return -1;
 	}
 	
 	/**
@@ -628,7 +1024,7 @@ public class Board extends JPanel implements MouseListener{
 			}
 		}
 		for(Player player : players) {
-			if(!(suggestedPlayerCard == null) && suggestedPlayerCard.getName().equals(player.getName())) {
+			if(!(suggestedPlayerCard == null) && suggestedPlayerCard.getId() == player.getCardId()) {
 				player.setPosition(suggester.getPosition());
 				//Ensure that the player can remain in the room on their next turn.
 				player.setCanStay(true);
@@ -705,8 +1101,7 @@ public class Board extends JPanel implements MouseListener{
 		}
 		
 		//Get a roll length 
-		Random rand = new Random();
-		currentRoll = rand.nextInt(6) + 1;
+		currentRoll = random.roll(6);
 		
 		//Calculate the possible targets for the player to move to.
 		calcTargets(currentPlayer.getPosition(), currentRoll);
@@ -763,12 +1158,21 @@ public class Board extends JPanel implements MouseListener{
 	public void paintComponent(Graphics g) {
 		//Call the superclass
 		super.paintComponent(g);
-		//Calculate the tile sizes
-		int tileWidth = getWidth() / gameBoard[0].length;
-		int tileHeight = getHeight() / gameBoard.length;
+		//Calculate the tile sizes, keeping every tile at least a pixel wide on very large boards.
+		int tileWidth = Math.max(1, getWidth() / boardWidth);
+		int tileHeight = Math.max(1, getHeight() / boardHeight);
+		//Only draw the rows and columns that fall inside the area being repainted.
+		Rectangle clip = g.getClipBounds();
+		if(clip == null) {
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+		}
+		int firstRow = Math.max(0, clip.y / tileHeight);
+		int lastRow = Math.min(boardHeight - 1, (clip.y + clip.height) / tileHeight);
+		int firstCol = Math.max(0, clip.x / tileWidth);
+		int lastCol = Math.min(boardWidth - 1, (clip.x + clip.width) / tileWidth);
 		//Draw the board
-		for(int i = 0; i < 23; i++) {
-			for(int j = 0; j < 26; j++) {
+		for(int i = firstRow; i <= lastRow; i++) {
+			for(int j = firstCol; j <= lastCol; j++) {
 				int xOffset = tileWidth * j;
 				int yOffset = tileHeight * i;
 				gameBoard[i][j].draw(tileWidth, tileHeight, xOffset, yOffset, g);
@@ -833,8 +1237,7 @@ public class Board extends JPanel implements MouseListener{
 				//If the new target is a room, prompt the player to make a suggestion
 				if(newTarget.isRoomCenter()) {
 					//Get the room card.
-					String roomName = getRoom(newTarget).getName();
-					Card roomCard = new Card(roomName, CardType.ROOM);
+					Card roomCard = getRoom(newTarget).getCard();
 					//Create the dialog box.
 					SuggestDialog dialog = new SuggestDialog(frame, roomCard);
 					dialog.setVisible(true);
@@ -886,6 +1289,22 @@ public class Board extends JPanel implements MouseListener{
 		return targets;
 	}
 	
+	/**
+	 * Returns the compact adjacency graph of the board, for movement and AI code that wants to walk the board by cell index.
+	 * @return - The board's graph, or null if the board has not been initialized.
+	 */
+	public BoardGraph getGraph() {
+		return boardGraph;
+	}
+	
+	/**
+	 * Returns the iterative target search for the current board, for callers that want their results as a bitset of cell indices.
+	 * @return - The board's target finder, or null if the board has not been initialized.
+	 */
+	public TargetFinder getTargetFinder() {
+		return targetFinder;
+	}
+	
 	/**
 	 * Grabs a cell from the gameBoard at row, col, and returns it.
 	 * @param row - The row position of the desired cell
@@ -900,7 +1319,7 @@ public class Board extends JPanel implements MouseListener{
 	 * Returns the number of rows in the board, or it's height.
 	 * @return - An int representing the height of the board.
 	 */
-	public static int getNumRows() {
+	public int getRowCount() {
 		return boardHeight;
 	}
 	
@@ -908,10 +1327,27 @@ public class Board extends JPanel implements MouseListener{
 	 * Returns the number of columns in the board, or it's width.
 	 * @return - An int representing the width of the board.
 	 */
-	public static int getNumColumns() {
+	public int getColumnCount() {
 		return boardWidth;
 	}
 	
+	/**
+	 * Returns the number of rows in the game's board. Kept static for existing callers; boards other than the game's should use getRowCount().
+	 * @return - An int representing the height of the game's board.
+	 */
+	public static int getNumRows() {
+		return getInstance().getRowCount();
+	}
+	
+	/**
+	 * Returns the number of columns in the game's board. Kept static for existing callers; boards other than the game's should use
+	 * getColumnCount().
+	 * @return - An int representing the width of the game's board.
+	 */
+	public static int getNumColumns() {
+		return getInstance().getColumnCount();
+	}
+	
 	/**
 	 * Returns the room with the initial passed in.
 	 * @param Key - The char initial of the desired room
@@ -940,6 +1376,34 @@ public class Board extends JPanel implements MouseListener{
 		return gameBoard[row][col].getAdjList();
 	}
 	
+	/**
+	 * Returns the number of steps from a cell to the center of a room, without passing through any other room.
+	 * @param cell - A board cell
+	 * @param initial - The initial of the room.
+	 * @return - The number of steps, or -1 if the room can't be reached.
+	 */
+	public int getDistanceToRoom(BoardCell cell, char initial) {
+		return roomDistances.getDistance(cell, initial);
+	}
+	
+	/**
+	 * Returns the fewest turns it could take to reach a room from a cell, if every roll were a 6.
+	 * @param cell - A board cell
+	 * @param initial - The initial of the room.
+	 * @return - The number of turns, 0 if the cell is the room's center, or -1 if the room can't be reached.
+	 */
+	public int getTurnsToRoom(BoardCell cell, char initial) {
+		return roomDistances.getTurns(cell, initial, TargetTable.MAX_ROLL);
+	}
+	
+	/**
+	 * Returns the distances from every cell to every room for the current layout.
+	 * @return - The board's room distances, or null if the board has not been initialized.
+	 */
+	public RoomDistances getRoomDistances() {
+		return roomDistances;
+	}
+	
 	/**
 	 * Returns the list of players in the game.
 	 * @return
@@ -950,18 +1414,62 @@ public class Board extends JPanel implements MouseListener{
 	
 	/**
 	 * Returns the solution to the game.
-	 * @return
+	 * @return - A new set holding the solution's cards, so changing it doesn't change the solution.
 	 */
 	public Set<Card> getSolution(){
+		return SolutionKey.toCards(solution, getSolutionRegistry());
+	}
+	
+	/**
+	 * Returns the solution to the game packed into a SolutionKey, for comparing against other keys or looking it up in tables.
+	 * @return - The solution's key.
+	 */
+	public long getSolutionKey() {
 		return solution;
 	}
 	
 	/**
 	 * Set the solution to the game, for testing purposes.
-	 * @param soln - The desired solution to the game as a set
+	 * @param soln - The desired solution to the game as a set, with at most one card of each type, all from the same registry.
+	 * @throws IllegalArgumentException - If two cards have the same type, or the cards are from different registries.
 	 */
 	public void setSolution(Set<Card> soln) {
-		solution = new HashSet<Card>(soln);
+		CardRegistry solnRegistry = soln.isEmpty() ? registry : soln.iterator().next().getRegistry();
+		for(Card card : soln) {
+			if(card.getRegistry() != solnRegistry) {
+				throw new IllegalArgumentException("Every card of a solution must be from the same registry.");
+			}
+		}
+		long key = SolutionKey.of(soln);
+		if(key == SolutionKey.CONFLICT) {
+			throw new IllegalArgumentException("A solution can't have two cards of the same type.");
+		}
+		solution = key;
+		solutionRegistry = solnRegistry;
+	}
+	
+	/**
+	 * Returns the registry the solution's ids are from: the deck's, unless a solution was set from cards outside of it.
+	 * @return - The solution's registry.
+	 */
+	private CardRegistry getSolutionRegistry() {
+		return (solutionRegistry == null) ? registry : solutionRegistry;
+	}
+	
+	/**
+	 * Returns every room and space declared in the setup file, keyed by initial.
+	 * @return - The board's room map.
+	 */
+	Map<Character, Room> getRoomMap() {
+		return roomMap;
+	}
+	
+	/**
+	 * Returns the registry of the game's deck, which numbers its cards from 0.
+	 * @return - The deck's registry.
+	 */
+	public CardRegistry getRegistry() {
+		return registry;
 	}
 	
 	/**
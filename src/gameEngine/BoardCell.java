@@ -5,6 +5,7 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.util.Collections;
 import java.util.HashSet;
 
 /**
@@ -25,8 +26,11 @@ public class BoardCell {
 	private boolean roomLabel;
 	private boolean roomCenter;
 	private char secretPassage;
-	//Set of cells adjacent to the current cell. 
+	//Set of cells adjacent to the current cell. Null until the first adjacency is added, or until the board gives the cell a view of its
+	//graph, which happens once the graph is built, or the first time the list is asked for if the graph is lazy.
 	private Set<BoardCell> adjacentCells;
+	//The board the cell belongs to, or null until a board has finished setting it up, in which case Board.getInstance() is used.
+	private Board board;
 	//Dimensions of tile on GUI (For mouse events)
 	private int width, height;
 	
@@ -50,11 +54,27 @@ public class BoardCell {
 		roomCenter = false;
 		doorDirection = DoorDirection.NONE;
 		
-		//Initialize the adjacency set
-		adjacentCells = new HashSet<BoardCell>();
 		secretPassage = 'X';
 	}
-	
+
+	/**
+	 * A copy constructor to create a cell in the same position and room as an old one, for a new game on the same layout. The new cell is
+	 * empty, and has no adjacency until the board gives it a view of its graph.
+	 * @param cell - The cell to duplicate.
+	 */
+	public BoardCell(BoardCell cell) {
+		super();
+		rowPos = cell.rowPos;
+		colPos = cell.colPos;
+		isOccupied = false;
+		isInRoom = cell.isInRoom;
+		doorDirection = cell.doorDirection;
+		roomInitial = cell.roomInitial;
+		roomLabel = cell.roomLabel;
+		roomCenter = cell.roomCenter;
+		secretPassage = cell.secretPassage;
+	}
+
 	/**
 	 * A method to draw each and every tile on the board.
 	 * @param tileWidth - The width to draw each tile.
@@ -177,18 +197,44 @@ public class BoardCell {
 	}
 	
 	/**
-	 * Adds a cell to the list of cells adjacent to the callee cell.
+	 * Adds a cell to the list of cells adjacent to the callee cell. Only cells that aren't part of a board yet have lists of their own. Once a
+	 * board has given the cell a view of its graph, or claimed it, the cell's neighbors come from the graph, which can't be changed.
 	 * @param cell - A board cell that will be added to the adjacency list of the callee cell.
+	 * @throws IllegalStateException - If the cell's neighbors are read from a board's graph.
 	 */
 	public void addAdjacency(BoardCell cell) {
+		if(board != null || (adjacentCells != null && !(adjacentCells instanceof HashSet))) {
+			throw new IllegalStateException("The adjacency of cell " + rowPos + ", " + colPos + " is read from the board's graph and can't be changed.");
+		}
+		//Cells without neighbors never allocate a set.
+		if(adjacentCells == null) {
+			adjacentCells = new HashSet<BoardCell>();
+		}
 		adjacentCells.add(cell);
 	}
 	
+	/**
+	 * Replaces the cell's own adjacency set with a read-only view of the board's graph. Called by the board once its adjacency lists are built.
+	 * @param view - A set view of this cell's neighbors in the board's graph.
+	 */
+	void setAdjacencyView(Set<BoardCell> view) {
+		adjacentCells = view;
+	}
+	
 	/**
 	 * Returns the list of all cells adjacent to the callee cell.
-	 * @return - A Hash Set of Board Cells representing the tiles that are considered "next to" the callee cell
+	 * @return - A Set of Board Cells representing the tiles that are considered "next to" the callee cell
 	 */
 	public Set<BoardCell> getAdjList(){
+		if(adjacentCells == null) {
+			//A board with lazy adjacency doesn't give its cells views up front, so ask its graph the first time the list is needed.
+			BoardGraph graph = getBoard().getGraph();
+			int id = (graph != null && graph.isLazy()) ? graph.getIndex(this) : -1;
+			if(id < 0) {
+				return Collections.emptySet();
+			}
+			adjacentCells = graph.getAdjacencyView(id);
+		}
 		return adjacentCells;
 	}
 	
@@ -213,8 +259,35 @@ public class BoardCell {
 	 * @param isOccupied - A boolean representing the occupancy of the tile.
 	 */
 	public void setOccupied(boolean isOccupied) {
+		if(this.isOccupied != isOccupied) {
+			//The board makes the change, so it can throw out any targets that depended on this cell being empty or full at the same time.
+			getBoard().changeOccupancy(this, isOccupied);
+		}
+	}
+
+	/**
+	 * Sets the cell's occupancy without telling the board. Only called by the board, which tells its own target cache.
+	 * @param isOccupied - A boolean representing the occupancy of the tile.
+	 */
+	void storeOccupied(boolean isOccupied) {
 		this.isOccupied = isOccupied;
 	}
+
+	/**
+	 * Returns the board the cell belongs to.
+	 * @return - The board that claimed the cell, or the game's board if none has.
+	 */
+	private Board getBoard() {
+		return (board != null) ? board : Board.getInstance();
+	}
+
+	/**
+	 * Records the board the cell belongs to, so that changes to the cell are reported to that board even when it isn't the game's board.
+	 * @param board - The board using the cell.
+	 */
+	void setBoard(Board board) {
+		this.board = board;
+	}
 	
 	/**
 	 * Returns whether or not the cell is a doorway.
@@ -0,0 +1,436 @@
+package gameEngine;
+
+import java.awt.Color;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A board compiled into a single binary file, so it can be loaded without parsing the setup and layout files or building adjacency lists.
+ * The file holds the rooms, every cell's attributes, the adjacency graph in compressed sparse row form, the cards, and the players. All
+ * numbers are big endian, and strings are written as a two byte length followed by UTF-8 bytes:
+ *   int MAGIC, short VERSION
+ *   int room count, then for each room: char initial, string name
+ *   int height, int width, then for each cell in row order: char initial, byte flags, byte door direction, char secret passage
+ *   int offsets[cells + 1], int neighbors[offsets[cells]]
+ *   int card count, then for each card: byte type, string name
+ *   int player count, then for each player: byte human, string name, byte red, byte green, byte blue, int row, int col
+ * Files are written by compile(), or from the command line with the layout, setup, and output file names, and are loaded with
+ * Board.setCompiledFile().
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class BoardFile {
+	//The first four bytes of every compiled board, "CLUE".
+	public static final int MAGIC = 0x434C5545;
+	//The version of the format. Files from other versions are rejected.
+	public static final short VERSION = 2;
+	//Bits of a cell's flags byte.
+	private static final int IN_ROOM = 1, LABEL = 2, CENTER = 4;
+	//The bytes each cell takes in the file.
+	private static final int CELL_BYTES = 6;
+	//The path of the file being read, for error messages.
+	private String fileName;
+	//Everything read from the file.
+	private Map<Character, Room> rooms;
+	private BoardCell[][] cells;
+	private BoardGraph graph;
+	private List<Card> cards;
+	private CardRegistry registry;
+	private List<Player> players;
+	private Player humanPlayer;
+
+	/**
+	 * Reads a compiled board file. Large files are memory mapped.
+	 * @param fileName - The path of the file.
+	 * @throws BadConfigFormatException - If the file is missing, can't be read, isn't a compiled board of this version, or is corrupt.
+	 */
+	public BoardFile(String fileName) throws BadConfigFormatException {
+		super();
+		ByteBuffer buffer;
+		try {
+			buffer = LayoutParser.readFile(fileName);
+		}
+		catch(FileNotFoundException | NoSuchFileException e) {
+			throw new BadConfigFormatException("File " + fileName + " not found. Please check the data directory.");
+		}
+		catch(IOException e) {
+			throw new BadConfigFormatException("File " + fileName + " could not be read.");
+		}
+		this.fileName = fileName;
+		if(buffer.remaining() < 6 || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+			throw new BadConfigFormatException("File " + fileName + " is not a compiled board, or was compiled by a different version.");
+		}
+		readBoard(buffer);
+	}
+
+	/**
+	 * Decodes everything after the header. Every count is checked against the bytes left in the file before anything is read or allocated,
+	 * and every room initial, door direction, card type, and neighbor is checked before it is used, so a corrupt file is reported rather
+	 * than failing partway through.
+	 * @param buffer - The file's bytes, positioned just after the header.
+	 * @throws BadConfigFormatException - If the file ends early or holds something that doesn't make sense.
+	 */
+	private void readBoard(ByteBuffer buffer) throws BadConfigFormatException {
+		//Read the rooms. Each is at least a char and a string length.
+		rooms = new HashMap<Character, Room>();
+		int roomCount = readCount(buffer, 4);
+		for(int k = 0; k < roomCount; k++) {
+			require(buffer, 2);
+			char initial = buffer.getChar();
+			rooms.put(initial, new Room(readString(buffer)));
+		}
+
+		//Read the cells, saving centers and labels in their rooms.
+		require(buffer, 8);
+		int height = buffer.getInt();
+		int width = buffer.getInt();
+		if(height <= 0 || width <= 0 || (long) height * width * CELL_BYTES > buffer.remaining()) {
+			throw corrupt();
+		}
+		cells = new BoardCell[height][width];
+		DoorDirection[] directions = DoorDirection.values();
+		for(int i = 0; i < height; i++) {
+			for(int j = 0; j < width; j++) {
+				BoardCell cell = new BoardCell(i, j);
+				char initial = buffer.getChar();
+				int flags = buffer.get();
+				int direction = buffer.get();
+				char secretPassage = buffer.getChar();
+				if(direction < 0 || direction >= directions.length) {
+					throw corrupt();
+				}
+				cell.setDoor(directions[direction]);
+				if((flags & IN_ROOM) != 0) {
+					Room room = rooms.get(initial);
+					if(room == null) {
+						throw corrupt();
+					}
+					cell.setRoom(initial, (flags & LABEL) != 0, (flags & CENTER) != 0);
+					if((flags & CENTER) != 0) {
+						room.setCenterCell(cell);
+					}
+					if((flags & LABEL) != 0) {
+						room.setLabelCell(cell);
+					}
+				}
+				else if(initial == 'W') {
+					cell.setWalkway();
+				}
+				else {
+					cell.setUnused();
+				}
+				if(secretPassage != 'X') {
+					cell.setSecretPassage(secretPassage);
+				}
+				cells[i][j] = cell;
+			}
+		}
+
+		//Read the adjacency graph.
+		int cellCount = height * width;
+		if((long) (cellCount + 1) * 4 > buffer.remaining()) {
+			throw corrupt();
+		}
+		int[] offsets = new int[cellCount + 1];
+		buffer.asIntBuffer().get(offsets);
+		buffer.position(buffer.position() + offsets.length * 4);
+		int neighborCount = offsets[cellCount];
+		if(neighborCount < 0 || (long) neighborCount * 4 > buffer.remaining()) {
+			throw corrupt();
+		}
+		int[] neighbors = new int[neighborCount];
+		buffer.asIntBuffer().get(neighbors);
+		buffer.position(buffer.position() + neighbors.length * 4);
+		checkGraph(offsets, neighbors);
+		graph = new CompactBoardGraph(cells, offsets, neighbors);
+
+		//Read the cards. Each is at least a type and a string length.
+		cards = new ArrayList<Card>();
+		registry = new CardRegistry();
+		CardType[] types = CardType.values();
+		int cardCount = readCount(buffer, 3);
+		for(int k = 0; k < cardCount; k++) {
+			require(buffer, 1);
+			int type = buffer.get();
+			if(type < 0 || type >= types.length) {
+				throw corrupt();
+			}
+			cards.add(registry.getCard(readString(buffer), types[type]));
+		}
+
+		//Read the players. Each is at least a flag, a string length, a color, and a position.
+		players = new ArrayList<Player>();
+		int playerCount = readCount(buffer, 14);
+		for(int k = 0; k < playerCount; k++) {
+			require(buffer, 1);
+			boolean human = buffer.get() != 0;
+			String name = readString(buffer);
+			require(buffer, 11);
+			Color color = new Color(buffer.get() & 0xff, buffer.get() & 0xff, buffer.get() & 0xff);
+			int row = buffer.getInt();
+			int col = buffer.getInt();
+			if(human) {
+				humanPlayer = new HumanPlayer(name, color, row, col);
+				players.add(humanPlayer);
+			}
+			else {
+				players.add(new ComputerPlayer(name, color, row, col));
+			}
+		}
+	}
+
+	/**
+	 * Checks that a graph read from a file is well formed: the offsets start at 0 and never decrease, and every neighbor is a cell of the
+	 * board. Without this a corrupt file would load, and fail later in the middle of a target search.
+	 * @param offsets - Where each cell's neighbors start in neighbors, with one extra entry for the end of the last cell's.
+	 * @param neighbors - Every cell's neighbors, by cell index.
+	 * @throws BadConfigFormatException - If the graph isn't well formed.
+	 */
+	private void checkGraph(int[] offsets, int[] neighbors) throws BadConfigFormatException {
+		int cellCount = offsets.length - 1;
+		if(offsets[0] != 0) {
+			throw corrupt();
+		}
+		for(int id = 0; id < cellCount; id++) {
+			if(offsets[id + 1] < offsets[id]) {
+				throw corrupt();
+			}
+		}
+		for(int neighbor : neighbors) {
+			if(neighbor < 0 || neighbor >= cellCount) {
+				throw corrupt();
+			}
+		}
+	}
+
+	/**
+	 * Reads the number of records in a section, and checks that the file is long enough to hold them.
+	 * @param buffer - The buffer to read from.
+	 * @param minBytes - The fewest bytes one record can take.
+	 * @return - The number of records.
+	 * @throws BadConfigFormatException - If the count is negative or the file is too short for it.
+	 */
+	private int readCount(ByteBuffer buffer, int minBytes) throws BadConfigFormatException {
+		require(buffer, 4);
+		int count = buffer.getInt();
+		if(count < 0 || (long) count * minBytes > buffer.remaining()) {
+			throw corrupt();
+		}
+		return count;
+	}
+
+	/**
+	 * Checks that there are enough bytes left in the file for the next thing to be read.
+	 * @param buffer - The buffer to read from.
+	 * @param bytes - The number of bytes needed.
+	 * @throws BadConfigFormatException - If the file ends first.
+	 */
+	private void require(ByteBuffer buffer, int bytes) throws BadConfigFormatException {
+		if(buffer.remaining() < bytes) {
+			throw corrupt();
+		}
+	}
+
+	/**
+	 * Creates the exception for a file that can't be decoded.
+	 * @return - The exception, to be thrown.
+	 */
+	private BadConfigFormatException corrupt() {
+		return new BadConfigFormatException("File " + fileName + " is corrupt.");
+	}
+
+	/**
+	 * Reads a string written by writeString().
+	 * @param buffer - The buffer to read from.
+	 * @return - The string.
+	 * @throws BadConfigFormatException - If the file ends before the string does.
+	 */
+	private String readString(ByteBuffer buffer) throws BadConfigFormatException {
+		require(buffer, 2);
+		byte[] bytes = new byte[buffer.getShort() & 0xffff];
+		require(buffer, bytes.length);
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Writes a string as a two byte length followed by its UTF-8 bytes.
+	 * @param out - The stream to write to.
+	 * @param string - The string to write.
+	 * @throws IOException - If the stream can't be written to, or the string is too long for its length to fit in two bytes.
+	 */
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		if(bytes.length > 0xffff) {
+			throw new IOException("A name of " + bytes.length + " bytes is too long to compile.");
+		}
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Writes a board that has been initialized from its setup and layout files to a compiled board file. Must be called before any player
+	 * has moved, so that the players' starting positions are saved.
+	 * @param board - The initialized board.
+	 * @param fileName - The path of the file to write.
+	 * @throws IOException - If the file can't be written.
+	 */
+	public static void write(Board board, String fileName) throws IOException {
+		BoardGraph graph = board.getGraph();
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)))) {
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+
+			//Write the rooms.
+			Map<Character, Room> rooms = board.getRoomMap();
+			out.writeInt(rooms.size());
+			for(Map.Entry<Character, Room> entry : rooms.entrySet()) {
+				out.writeChar(entry.getKey());
+				writeString(out, entry.getValue().getName());
+			}
+
+			//Write the cells.
+			out.writeInt(graph.getHeight());
+			out.writeInt(graph.getWidth());
+			for(int id = 0; id < graph.getCellCount(); id++) {
+				BoardCell cell = graph.getCell(id);
+				int flags = (cell.getisInRoom() ? IN_ROOM : 0) | (cell.isLabel() ? LABEL : 0) | (cell.isRoomCenter() ? CENTER : 0);
+				out.writeChar(cell.getInitial());
+				out.writeByte(flags);
+				out.writeByte(cell.getDoorDirection().ordinal());
+				out.writeChar(cell.getSecretPassage());
+			}
+
+			//Write the adjacency graph.
+			int offset = 0;
+			out.writeInt(offset);
+			for(int id = 0; id < graph.getCellCount(); id++) {
+				offset += graph.getDegree(id);
+				out.writeInt(offset);
+			}
+			for(int id = 0; id < graph.getCellCount(); id++) {
+				for(int k = 0; k < graph.getDegree(id); k++) {
+					out.writeInt(graph.getNeighbor(id, k));
+				}
+			}
+
+			//Write the cards.
+			out.writeInt(board.getDeck().size());
+			for(Card card : board.getDeck()) {
+				out.writeByte(card.getType().ordinal());
+				writeString(out, card.getName());
+			}
+
+			//Write the players.
+			out.writeInt(board.getPlayers().size());
+			for(Player player : board.getPlayers()) {
+				out.writeByte(player instanceof HumanPlayer ? 1 : 0);
+				writeString(out, player.getName());
+				out.writeByte(player.getColor().getRed());
+				out.writeByte(player.getColor().getGreen());
+				out.writeByte(player.getColor().getBlue());
+				out.writeInt(player.getRow());
+				out.writeInt(player.getCol());
+			}
+		}
+	}
+
+	/**
+	 * Loads a setup and layout file into a board of its own and writes them to a compiled board file. The game's board is not changed.
+	 * @param layoutFile - The name of the layout file, in the "data/" directory.
+	 * @param setupFile - The name of the setup file, in the "data/" directory.
+	 * @param outputFile - The path of the compiled board file to write.
+	 * @throws BadConfigFormatException - If the setup or layout file is bad.
+	 * @throws IOException - If the compiled board file can't be written.
+	 */
+	public static void compile(String layoutFile, String setupFile, String outputFile) throws BadConfigFormatException, IOException {
+		Board board = new Board();
+		board.setConfigFiles(layoutFile, setupFile);
+		board.loadFiles();
+		write(board, outputFile);
+	}
+
+	/**
+	 * Compiles a board from the command line.
+	 * @param args - The layout file and setup file, both in the "data/" directory, and the path of the compiled board file to write.
+	 */
+	public static void main(String[] args) {
+		if(args.length != 3) {
+			System.out.println("Usage: BoardFile <layout file> <setup file> <output file>");
+			return;
+		}
+		try {
+			compile(args[0], args[1], args[2]);
+			System.out.println("Wrote " + args[2]);
+		}
+		catch(BadConfigFormatException | IOException e) {
+			System.out.println(e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the rooms read from the file, keyed by initial, with their center and label cells set.
+	 * @return - The rooms.
+	 */
+	public Map<Character, Room> getRooms() {
+		return rooms;
+	}
+
+	/**
+	 * Returns the cells read from the file.
+	 * @return - The cells of the board, indexed [row][column].
+	 */
+	public BoardCell[][] getCells() {
+		return cells;
+	}
+
+	/**
+	 * Returns the adjacency graph read from the file.
+	 * @return - The board's graph.
+	 */
+	public BoardGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the cards read from the file, in the order they were declared in the setup file.
+	 * @return - The cards.
+	 */
+	public List<Card> getCards() {
+		return cards;
+	}
+
+	/**
+	 * Returns the registry of the cards read from the file, which holds only those cards.
+	 * @return - The cards' registry.
+	 */
+	public CardRegistry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * Returns the players read from the file, in the order they were declared in the setup file.
+	 * @return - The players, at their starting positions with empty hands.
+	 */
+	public List<Player> getPlayers() {
+		return players;
+	}
+
+	/**
+	 * Returns the human player read from the file.
+	 * @return - The human player, or null if the file doesn't have one.
+	 */
+	public Player getHumanPlayer() {
+		return humanPlayer;
+	}
+}
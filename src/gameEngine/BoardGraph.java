@@ -0,0 +1,265 @@
+package gameEngine;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The board's adjacency lists, with every cell given a dense index (row * width + col) so that searches can walk the board with plain int
+ * arrays. CompactBoardGraph holds every list at once in compressed sparse row form, and LazyBoardGraph works each list out the first time it
+ * is asked for. Either way the graph can't be changed once it is built.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public abstract class BoardGraph {
+	//The cells of the board, flattened so that a cell's index is row * width + col.
+	protected BoardCell[] cells;
+	protected int width, height;
+	//Whether each cell is a room center, since room centers end movement.
+	protected boolean[] roomCenter;
+
+	/**
+	 * Creates the graph for the board provided. Subclasses decide where the neighbors come from.
+	 * @param gameBoard - The game board.
+	 */
+	protected BoardGraph(BoardCell[][] gameBoard) {
+		super();
+		setCells(gameBoard);
+	}
+
+	/**
+	 * Flattens the board into the cell array, and records which cells are room centers.
+	 * @param gameBoard - The game board.
+	 */
+	protected void setCells(BoardCell[][] gameBoard) {
+		height = gameBoard.length;
+		width = gameBoard[0].length;
+		cells = new BoardCell[height * width];
+		roomCenter = new boolean[cells.length];
+		for(int i = 0; i < height; i++) {
+			for(int j = 0; j < width; j++) {
+				cells[i * width + j] = gameBoard[i][j];
+				roomCenter[i * width + j] = gameBoard[i][j].isRoomCenter();
+			}
+		}
+	}
+
+	/**
+	 * Finds the neighbors of every room center: the doors into its room, and the centers of rooms with a secret passage to it. These can be
+	 * anywhere on the board, so every door and secret passage is found with a single scan. Each center's neighbors are listed in the order
+	 * their cells appear on the board, row by row.
+	 * @param gameBoard - The game board.
+	 * @param roomMap - The board's rooms, keyed by initial, with their center cells set.
+	 * @return - The indices of each room center's neighbors, keyed by the index of the center. Centers with no neighbors are left out.
+	 */
+	protected Map<Integer, int[]> findCenterLists(BoardCell[][] gameBoard, Map<Character, Room> roomMap) {
+		Map<Integer, List<Integer>> centerLinks = new HashMap<Integer, List<Integer>>();
+		for(int id = 0; id < cells.length; id++) {
+			BoardCell cell = cells[id];
+			if(cell.isDoorway()) {
+				for(int next : LazyBoardGraph.findNeighbors(gameBoard, roomMap, cell.getRow(), cell.getCol())) {
+					if(roomCenter[next]) {
+						addLink(centerLinks, next, id);
+					}
+				}
+			}
+			else if(cell.getInitial() != 'W' && cell.getSecretPassage() != 'X') {
+				BoardCell secret = roomMap.get(cell.getSecretPassage()).getCenterCell();
+				BoardCell center = roomMap.get(cell.getInitial()).getCenterCell();
+				if(secret != null && center != null) {
+					addLink(centerLinks, getIndex(secret), getIndex(center));
+				}
+			}
+		}
+		Map<Integer, int[]> centerLists = new HashMap<Integer, int[]>();
+		for(Map.Entry<Integer, List<Integer>> entry : centerLinks.entrySet()) {
+			int[] list = new int[entry.getValue().size()];
+			for(int k = 0; k < list.length; k++) {
+				list[k] = entry.getValue().get(k);
+			}
+			centerLists.put(entry.getKey(), list);
+		}
+		return centerLists;
+	}
+
+	/**
+	 * Saves a link into a room center, unless the center already has it.
+	 * @param centerLinks - The links found so far, keyed by center.
+	 * @param center - The index of the room center.
+	 * @param cell - The index of the cell to link to it.
+	 */
+	private static void addLink(Map<Integer, List<Integer>> centerLinks, int center, int cell) {
+		List<Integer> links = centerLinks.computeIfAbsent(center, key -> new ArrayList<Integer>());
+		if(!links.contains(cell)) {
+			links.add(cell);
+		}
+	}
+
+	/**
+	 * Returns the number of cells on the board.
+	 * @return - The number of cells, or the largest index + 1.
+	 */
+	public int getCellCount() {
+		return cells.length;
+	}
+
+	/**
+	 * Returns the width of the board the graph was built from.
+	 * @return - The number of columns.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the height of the board the graph was built from.
+	 * @return - The number of rows.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the index of the cell at the position provided.
+	 * @param row - The row of the cell.
+	 * @param col - The column of the cell.
+	 * @return - The index of the cell, row * width + col.
+	 */
+	public int getIndex(int row, int col) {
+		return row * width + col;
+	}
+
+	/**
+	 * Returns the index of a cell, or -1 if the cell is not part of the board this graph was built for.
+	 * @param cell - A board cell
+	 * @return - The index of the cell, or -1.
+	 */
+	public int getIndex(BoardCell cell) {
+		if(cell.getCol() >= width) {
+			return -1;
+		}
+		int id = cell.getRow() * width + cell.getCol();
+		if(id < 0 || id >= cells.length || cells[id] != cell) {
+			return -1;
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the cell at the index provided.
+	 * @param id - The index of the cell.
+	 * @return - The board cell at that index.
+	 */
+	public BoardCell getCell(int id) {
+		return cells[id];
+	}
+
+	/**
+	 * Returns the number of cells adjacent to a cell.
+	 * @param id - The index of the cell.
+	 * @return - The number of neighbors the cell has.
+	 */
+	public abstract int getDegree(int id);
+
+	/**
+	 * Returns the index of one of a cell's neighbors.
+	 * @param id - The index of the cell.
+	 * @param k - Which neighbor to return, from 0 to getDegree(id) - 1.
+	 * @return - The index of the neighbor.
+	 */
+	public abstract int getNeighbor(int id, int k);
+
+	/**
+	 * Returns whether the graph works out each cell's neighbors the first time they are asked for, rather than holding them all. Cells of
+	 * a lazy graph aren't given views of it up front, walkways are only ever linked to the walkways next to them, and anything that would
+	 * read every cell's neighbors should wait until it is needed.
+	 * @return - True if the graph is lazy.
+	 */
+	public boolean isLazy() {
+		return false;
+	}
+
+	/**
+	 * Creates a graph with the same neighbors over another copy of the same layout, so that a new game can have cells of its own. Anything
+	 * the graph can't change is shared with this one.
+	 * @param gameBoard - The new game board, the same size and layout as this graph's.
+	 * @param roomMap - The new board's rooms, keyed by initial, with their center cells set to the new board's cells.
+	 * @return - A graph over the new board.
+	 */
+	public abstract BoardGraph copyFor(BoardCell[][] gameBoard, Map<Character, Room> roomMap);
+
+	/**
+	 * Returns whether the cell at the index provided is a room center.
+	 * @param id - The index of the cell.
+	 * @return - True if the cell is a room center.
+	 */
+	public boolean isRoomCenter(int id) {
+		return roomCenter[id];
+	}
+
+	/**
+	 * Returns a read-only set of the cells adjacent to a cell, backed by the graph. Used by BoardCell.getAdjList() once the graph is built,
+	 * so that the cell no longer needs its own hash set.
+	 * @param id - The index of the cell.
+	 * @return - A set view of the cell's neighbors.
+	 */
+	public Set<BoardCell> getAdjacencyView(int id) {
+		return new AdjacencyView(id);
+	}
+
+	/**
+	 * A read-only set of board cells over one cell's neighbors in the graph. Cells have at most a handful of neighbors, so contains() simply
+	 * scans them.
+	 */
+	private class AdjacencyView extends AbstractSet<BoardCell> {
+		private int id;
+
+		public AdjacencyView(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int size() {
+			return getDegree(id);
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if(!(o instanceof BoardCell)) {
+				return false;
+			}
+			int other = getIndex((BoardCell) o);
+			for(int k = 0; k < getDegree(id); k++) {
+				if(getNeighbor(id, k) == other) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public Iterator<BoardCell> iterator() {
+			return new Iterator<BoardCell>() {
+				private int k = 0;
+
+				public boolean hasNext() {
+					return k < getDegree(id);
+				}
+
+				public BoardCell next() {
+					if(!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					BoardCell cell = cells[getNeighbor(id, k)];
+					k++;
+					return cell;
+				}
+			};
+		}
+	}
+}
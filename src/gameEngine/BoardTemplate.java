@@ -0,0 +1,353 @@
+package gameEngine;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything about a board that only depends on its configuration files: the rooms, the cells, the adjacency graph, the target search and
+ * table, the room distances, the cards, and where each player starts. Templates are kept in a process-wide cache keyed by a SHA-256 hash
+ * of the files' contents and the options they were loaded with, so initializing the board again with files that haven't changed reuses the
+ * template instead of loading it again.
+ * Each game still gets its own mutable state from the template: fresh cells, rooms, and players, its own target search, and a new deal of the
+ * cards. Only what can't change once it is built is shared between games, such as the graph's neighbor arrays, a target table that was
+ * filled in all at once, and room distances that have already been calculated, so two boards using the same template never affect each other.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class BoardTemplate {
+	//The most templates kept at once. The least recently used template is dropped when another is added.
+	public static final int MAX_TEMPLATES = 16;
+	//Every cached template, keyed by its options and the hash of its files, in order of use.
+	private static final Map<String, BoardTemplate> templates = new LinkedHashMap<String, BoardTemplate>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, BoardTemplate> eldest) {
+			return size() > MAX_TEMPLATES;
+		}
+	};
+
+	//How recently a file must have been modified for its remembered hash not to be trusted, in milliseconds.
+	public static final long RECENT_MILLIS = 2000;
+	//The last hash of each file, keyed by its path, size, and modification time, in order of use.
+	private static final Map<String, String> fileHashes = new LinkedHashMap<String, String>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return size() > MAX_TEMPLATES * 3;
+		}
+	};
+
+	//The layout of the board. The template keeps its own copy of the cells, which no game ever uses, so games can't change them.
+	private Map<Character, Room> rooms;
+	private BoardCell[][] cells;
+	private BoardGraph graph;
+	//Searches and tables calculated from the layout. The finder is only copied, never used to search, and the table is null if it is filled
+	//in lazily, since each game then needs its own.
+	private TargetFinder targetFinder;
+	private TargetTable targetTable;
+	private RoomDistances roomDistances;
+	//The cards in the order they were declared, and the registry they belong to.
+	private List<Card> cards;
+	private CardRegistry registry;
+	//Each player's name, color, starting position, and whether they are the human player.
+	private String[] playerNames;
+	private Color[] playerColors;
+	private int[] playerRows, playerCols;
+	private boolean[] humanPlayers;
+
+	/**
+	 * Creates a template from a board that has just been loaded, before any player has moved.
+	 * @param rooms - The board's rooms, keyed by initial.
+	 * @param cells - The board's cells.
+	 * @param graph - The board's adjacency graph.
+	 * @param targetFinder - The board's target search.
+	 * @param targetTable - The board's table of targets.
+	 * @param roomDistances - The distances from every cell to every room.
+	 * @param cards - Every card, before any have been dealt.
+	 * @param registry - The registry the cards belong to.
+	 * @param players - The players, at their starting positions.
+	 */
+	public BoardTemplate(Map<Character, Room> rooms, BoardCell[][] cells, BoardGraph graph, TargetFinder targetFinder, TargetTable targetTable,
+			RoomDistances roomDistances, List<Card> cards, CardRegistry registry, List<Player> players) {
+		super();
+		//The game the template was made from keeps the cells it was given, so the template copies them.
+		this.cells = copyCells(cells);
+		this.rooms = copyRooms(rooms, this.cells);
+		this.graph = graph.copyFor(this.cells, this.rooms);
+		this.targetFinder = new TargetFinder(targetFinder, this.graph);
+		this.targetTable = targetTable.isLazy() ? null : targetTable;
+		this.roomDistances = new RoomDistances(roomDistances, this.graph);
+		this.cards = Collections.unmodifiableList(new ArrayList<Card>(cards));
+		this.registry = registry;
+
+		playerNames = new String[players.size()];
+		playerColors = new Color[players.size()];
+		playerRows = new int[players.size()];
+		playerCols = new int[players.size()];
+		humanPlayers = new boolean[players.size()];
+		for(int k = 0; k < players.size(); k++) {
+			Player player = players.get(k);
+			playerNames[k] = player.getName();
+			playerColors[k] = player.getColor();
+			playerRows[k] = player.getRow();
+			playerCols[k] = player.getCol();
+			humanPlayers[k] = player instanceof HumanPlayer;
+		}
+	}
+
+	/**
+	 * Calculates the key a board's files are cached under. The key changes whenever the contents of either file change, or the options the
+	 * board loads them with. A file's hash is remembered along with its size and modification time, so a file that hasn't been touched since
+	 * it was last hashed isn't read again. A file modified in the last RECENT_MILLIS is always hashed, since it could still change again
+	 * within the same modification time.
+	 * @param layoutConfigFile - The path of the layout file, or null if a compiled file is used.
+	 * @param setupConfigFile - The path of the setup file, or null if a compiled file is used.
+	 * @param compiledConfigFile - The path of the compiled board file, or null if the text files are used.
+	 * @param options - The board's loading options that change what is built from the files, such as lazy adjacency.
+	 * @return - The key, or null if a file can't be read, in which case the board should be loaded the usual way so the error is reported.
+	 */
+	public static String getKey(String layoutConfigFile, String setupConfigFile, String compiledConfigFile, String options) {
+		try {
+			if(compiledConfigFile != null) {
+				return options + ":compiled:" + getHash(compiledConfigFile);
+			}
+			return options + ":" + getHash(layoutConfigFile) + getHash(setupConfigFile);
+		}
+		catch(IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the hash of a file's contents, reusing the last hash of the file if its size and modification time haven't changed.
+	 * @param fileName - The path of the file.
+	 * @return - The SHA-256 hash of the file, in hexadecimal.
+	 * @throws IOException - If the file can't be read.
+	 */
+	private static String getHash(String fileName) throws IOException {
+		Path path = Paths.get(fileName).toAbsolutePath();
+		long modified = Files.getLastModifiedTime(path).toMillis();
+		String stamp = path + "|" + Files.size(path) + "|" + modified;
+		boolean recent = System.currentTimeMillis() - modified < RECENT_MILLIS;
+		if(!recent) {
+			synchronized(fileHashes) {
+				String hash = fileHashes.get(stamp);
+				if(hash != null) {
+					return hash;
+				}
+			}
+		}
+		String hash = hashFile(fileName);
+		if(!recent) {
+			synchronized(fileHashes) {
+				fileHashes.put(stamp, hash);
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Hashes the contents of a file.
+	 * @param fileName - The path of the file.
+	 * @return - The SHA-256 hash of the file, in hexadecimal.
+	 * @throws IOException - If the file can't be read.
+	 */
+	private static String hashFile(String fileName) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		//Every Java platform is required to support SHA-256.
+		catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		digest.update(LayoutParser.readFile(fileName));
+		StringBuilder hex = new StringBuilder();
+		for(byte b : digest.digest()) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+
+	/**
+	 * Returns the cached template for a key.
+	 * @param key - A key from getKey().
+	 * @return - The template, or null if none is cached.
+	 */
+	public static BoardTemplate get(String key) {
+		synchronized(templates) {
+			return templates.get(key);
+		}
+	}
+
+	/**
+	 * Caches a template under a key.
+	 * @param key - A key from getKey().
+	 * @param template - The template.
+	 */
+	public static void put(String key, BoardTemplate template) {
+		synchronized(templates) {
+			templates.put(key, template);
+		}
+	}
+
+	/**
+	 * Drops the template cached under a key, so the next board initialized with those files loads them again.
+	 * @param key - A key from getKey().
+	 */
+	public static void remove(String key) {
+		synchronized(templates) {
+			templates.remove(key);
+		}
+	}
+
+	/**
+	 * Drops every cached template.
+	 */
+	public static void clearCache() {
+		synchronized(templates) {
+			templates.clear();
+		}
+	}
+
+	/**
+	 * Creates a copy of every cell, with the same position and room but empty and without adjacency.
+	 * @param cells - The cells to copy, indexed [row][column].
+	 * @return - The new cells.
+	 */
+	private static BoardCell[][] copyCells(BoardCell[][] cells) {
+		BoardCell[][] copy = new BoardCell[cells.length][];
+		for(int i = 0; i < cells.length; i++) {
+			copy[i] = new BoardCell[cells[i].length];
+			for(int j = 0; j < cells[i].length; j++) {
+				copy[i][j] = new BoardCell(cells[i][j]);
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * Creates a copy of the rooms whose center and label cells are the cells in the same positions on another copy of the board.
+	 * @param rooms - The rooms to copy, keyed by initial.
+	 * @param cells - The board the new rooms belong to.
+	 * @return - New rooms keyed by initial.
+	 */
+	private static Map<Character, Room> copyRooms(Map<Character, Room> rooms, BoardCell[][] cells) {
+		Map<Character, Room> copy = new HashMap<Character, Room>();
+		for(Map.Entry<Character, Room> entry : rooms.entrySet()) {
+			Room room = new Room(entry.getValue());
+			if(room.getCenterCell() != null) {
+				room.setCenterCell(cells[room.getCenterCell().getRow()][room.getCenterCell().getCol()]);
+			}
+			if(room.getLabelCell() != null) {
+				room.setLabelCell(cells[room.getLabelCell().getRow()][room.getLabelCell().getCol()]);
+			}
+			copy.put(entry.getKey(), room);
+		}
+		return copy;
+	}
+
+	/**
+	 * Creates the cells for a new game, all empty.
+	 * @return - The new cells, indexed [row][column].
+	 */
+	public BoardCell[][] createCells() {
+		return copyCells(cells);
+	}
+
+	/**
+	 * Creates the rooms for a new game, so a game can change its rooms without affecting the template.
+	 * @param gameBoard - The new game's cells, from createCells().
+	 * @return - New rooms keyed by initial, with their center and label cells on the new game's board.
+	 */
+	public Map<Character, Room> createRooms(BoardCell[][] gameBoard) {
+		return copyRooms(rooms, gameBoard);
+	}
+
+	/**
+	 * Creates the adjacency graph for a new game.
+	 * @param gameBoard - The new game's cells, from createCells().
+	 * @param roomMap - The new game's rooms, from createRooms().
+	 * @return - A graph over the new game's cells, sharing the template's neighbors.
+	 */
+	public BoardGraph createGraph(BoardCell[][] gameBoard, Map<Character, Room> roomMap) {
+		return graph.copyFor(gameBoard, roomMap);
+	}
+
+	/**
+	 * Creates the target search for a new game, with scratch space of its own.
+	 * @param gameGraph - The new game's graph, from createGraph().
+	 * @return - The new target finder.
+	 */
+	public TargetFinder createTargetFinder(BoardGraph gameGraph) {
+		return new TargetFinder(targetFinder, gameGraph);
+	}
+
+	/**
+	 * Returns the table of targets for a new game. A table that was filled in all at once is shared, and a lazy one is created for each game.
+	 * @param gameFinder - The new game's finder, from createTargetFinder().
+	 * @return - The target table.
+	 */
+	public TargetTable createTargetTable(TargetFinder gameFinder) {
+		if(targetTable == null) {
+			return new TargetTable(gameFinder);
+		}
+		return targetTable;
+	}
+
+	/**
+	 * Creates the distances from every cell to every room for a new game, sharing any the template has already calculated.
+	 * @param gameGraph - The new game's graph, from createGraph().
+	 * @return - The room distances.
+	 */
+	public RoomDistances createRoomDistances(BoardGraph gameGraph) {
+		return new RoomDistances(roomDistances, gameGraph);
+	}
+
+	/**
+	 * Creates the players for a new game, at their starting positions with empty hands.
+	 * @return - The new players, in the order they were declared.
+	 */
+	public List<Player> createPlayers() {
+		List<Player> players = new ArrayList<Player>();
+		for(int k = 0; k < playerNames.length; k++) {
+			if(humanPlayers[k]) {
+				players.add(new HumanPlayer(playerNames[k], playerColors[k], playerRows[k], playerCols[k]));
+			}
+			else {
+				players.add(new ComputerPlayer(playerNames[k], playerColors[k], playerRows[k], playerCols[k]));
+			}
+		}
+		return players;
+	}
+
+	/**
+	 * Returns every card, in the order they were declared.
+	 * @return - A read-only list of the cards.
+	 */
+	public List<Card> getCards() {
+		return cards;
+	}
+
+	/**
+	 * Returns the registry the cards belong to. Shared by every game using the template, so cards from one game are equal to the same cards
+	 * from the next.
+	 * @return - The cards' registry.
+	 */
+	public CardRegistry getRegistry() {
+		return registry;
+	}
+}
@@ -3,7 +3,8 @@ package gameEngine;
 /**
  * Class representing a card object for use in the clue game. Cards contain a name string that elaborate what they are,
  * and an enumeration of either type ROOM, WEAPON, or PERSON to denote how they should be handled, and if they form a
- * valid solution together.
+ * valid solution together. Every card has an id from the CardRegistry of its deck, shared by every card with the same name and type. Cards
+ * are equal when they have the same name and type, whichever registry they are from, the same way CardSet matches cards from other decks.
  * @author Derek Suzumoto
  * @author Luke Wakumoto
  */
@@ -13,16 +14,34 @@ public class Card {
 	private String name;
 	//The type of card, either ROOM, WEAPON, or PERSON.
 	private CardType type;
+	//The registry the card belongs to, and its id there.
+	private CardRegistry registry;
+	private int id;
 	
 	/**
-	 * A constructor to create a new card from the name and type desired.
+	 * A constructor to create a new card from the name and type desired. The card is given the id of the card with the same name and type
+	 * in the active registry, the deck being played. Nothing is registered in the deck, which may be shared with other games, so a name
+	 * the deck doesn't have is given an id in a registry kept for cards outside of any deck. See CardRegistry.lookUp().
 	 * @param cardName - A string containing the name of the card.
 	 * @param cardType - A CardType Enum containing the proper type.
 	 */
 	public Card(String cardName, CardType cardType) {
+		this(CardRegistry.lookUp(cardName, cardType));
+	}
+	
+	/**
+	 * Creates a card with an id that has already been chosen. Used by CardRegistry to create the registered card itself.
+	 * @param cardName - A string containing the name of the card.
+	 * @param cardType - A CardType Enum containing the proper type.
+	 * @param cardId - The card's id.
+	 * @param cardRegistry - The registry the id is from.
+	 */
+	Card(String cardName, CardType cardType, int cardId, CardRegistry cardRegistry) {
 		super();
 		name = cardName;
 		type = cardType;
+		id = cardId;
+		registry = cardRegistry;
 	}
 	
 	/**
@@ -33,19 +52,52 @@ public class Card {
 		super();
 		name = card.name;
 		type = card.type;
+		id = card.id;
+		registry = card.registry;
 	}
 	
 	/**
-	 * Returns true if the provided card contains equivalent data to the current card.
+	 * Returns true if the provided card has the same name and type as the current card. Cards from different registries can be equal.
 	 * @param target - The card to compare.
 	 * @return - True/False if cards are equivalent.
 	 */
 	public boolean equals(Card target) {
-		if (target.name.equals(name) && target.type.equals(type)) {
-			return true;
-		}else {
-			return false;
-		}
+		return target != null && target.type == type && target.name.equals(name);
+	}
+	
+	/**
+	 * Returns true if the object provided is a card with the same name and type, so cards can be kept in hash sets and maps.
+	 * @param target - The object to compare.
+	 * @return - True/False if the object is an equivalent card.
+	 */
+	@Override
+	public boolean equals(Object target) {
+		return target instanceof Card && equals((Card) target);
+	}
+	
+	/**
+	 * Returns a hash code consistent with equals(), from the card's name and type.
+	 * @return - The card's hash code.
+	 */
+	@Override
+	public int hashCode() {
+		return name.hashCode() * 31 + type.hashCode();
+	}
+	
+	/**
+	 * Method to get the card's id in its registry.
+	 * @return - The card's id, from 0 to one less than the registry's size.
+	 */
+	public int getId() {
+		return id;
+	}
+	
+	/**
+	 * Method to get the registry the card's id is from.
+	 * @return - The card's registry.
+	 */
+	public CardRegistry getRegistry() {
+		return registry;
 	}
 	
 	/**
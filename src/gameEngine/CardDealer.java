@@ -0,0 +1,157 @@
+package gameEngine;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deals a deck of cards without removing anything from it. The dealer works on an array of positions in the deck rather than the cards
+ * themselves: the positions are first grouped by card type, so each type's pool is one range of the array and the solution can be drawn
+ * with a single random pick per type. The solution's positions are then swapped to the front, and the rest of the array is shuffled one
+ * position at a time as it is dealt (a partial Fisher-Yates shuffle), so dealing the whole deck takes time linear in its size and the deck
+ * is never copied or changed.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class CardDealer {
+	//The deck being dealt.
+	private List<Card> deck;
+	//Positions in the deck. Grouped by type until the solution is drawn, then the solution, the cards dealt so far, and the cards left.
+	private int[] order;
+	//Where each type's pool starts in order, indexed by CardType ordinal, with one extra entry for the end of the last pool.
+	private int[] poolStart;
+	//Whether the deck has been dealt, which mixes up the pools.
+	private boolean dealt;
+
+	/**
+	 * Creates a dealer for the deck provided, grouping its cards by type.
+	 * @param deck - The deck to deal. It is not changed.
+	 */
+	public CardDealer(List<Card> deck) {
+		super();
+		this.deck = deck;
+		CardType[] types = CardType.values();
+		//Count the cards of each type to find where each pool starts, then place every position in its pool.
+		poolStart = new int[types.length + 1];
+		for(Card card : deck) {
+			poolStart[card.getType().ordinal() + 1]++;
+		}
+		for(int t = 0; t < types.length; t++) {
+			poolStart[t + 1] += poolStart[t];
+		}
+		order = new int[deck.size()];
+		int[] fill = new int[types.length];
+		for(int k = 0; k < deck.size(); k++) {
+			int t = deck.get(k).getType().ordinal();
+			order[poolStart[t] + fill[t]] = k;
+			fill[t]++;
+		}
+	}
+
+	/**
+	 * Returns true if the deck has at least one card of every type, so a solution can be drawn.
+	 * @return - True if no type's pool is empty.
+	 */
+	public boolean hasEveryType() {
+		for(int t = 0; t < poolStart.length - 1; t++) {
+			if(poolStart[t + 1] == poolStart[t]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Picks a random card of one type, without dealing it or changing the deck. Only possible before the deck is dealt, since dealing
+	 * shuffles the pools together.
+	 * @param type - The type of card to pick.
+	 * @param random - The random number generator to pick with.
+	 * @return - The card, or null if the deck has no cards of that type.
+	 * @throws IllegalStateException - If this dealer has already dealt the deck.
+	 */
+	public Card pick(CardType type, GameRandom random) {
+		if(dealt) {
+			throw new IllegalStateException("The pools are gone once the deck has been dealt.");
+		}
+		int t = type.ordinal();
+		int size = poolStart[t + 1] - poolStart[t];
+		if(size == 0) {
+			return null;
+		}
+		return deck.get(order[poolStart[t] + random.nextInt(size)]);
+	}
+
+	/**
+	 * Draws a solution with one card of each type, then deals the rest of the deck to the players. Each player's hand capacity is set to fit
+	 * what the policy deals them, so no card is dropped by a full hand.
+	 * @param players - The players to deal to, in turn order.
+	 * @param random - The random number generator to draw and shuffle with.
+	 * @param policy - EVEN to deal every card, one to each player in turn, or FIXED to deal handSize cards to each player in turn until every
+	 * hand is full or the deck runs out.
+	 * @param handSize - The number of cards each player is dealt under FIXED. Not used under EVEN.
+	 * @return - The solution.
+	 */
+	public Set<Card> deal(List<Player> players, GameRandom random, DealPolicy policy, int handSize) {
+		dealt = true;
+		//Draw one position from each type's pool, and move it to the front of the pool.
+		int types = poolStart.length - 1;
+		for(int t = 0; t < types; t++) {
+			swap(poolStart[t], poolStart[t] + random.nextInt(poolStart[t + 1] - poolStart[t]));
+		}
+		//Every pool has been drawn from, so the solution can be moved to the front of the whole array, out of the way of the deal. Pools
+		//start at increasing positions, so no swap moves a solution card that is already in place.
+		Set<Card> solution = new HashSet<Card>();
+		for(int t = 0; t < types; t++) {
+			swap(t, poolStart[t]);
+			solution.add(deck.get(order[t]));
+		}
+
+		//With no one to deal to, the rest of the deck stays undealt.
+		if(players.isEmpty()) {
+			return solution;
+		}
+		//Deal the rest, picking each card at random from the ones not dealt yet.
+		int next = types;
+		if(policy == DealPolicy.EVEN) {
+			//Every hand holds its share of the cards left, rounded up, and the cards go around the table one at a time.
+			int capacity = (order.length - next + players.size() - 1) / players.size();
+			for(Player player : players) {
+				player.setHandCapacity(capacity);
+			}
+			for(int k = 0; next < order.length; k++) {
+				dealNext(players.get(k % players.size()), next++, random);
+			}
+		}
+		else {
+			for(Player player : players) {
+				player.setHandCapacity(handSize);
+				for(int i = 0; i < handSize && next < order.length; i++) {
+					dealNext(player, next++, random);
+				}
+			}
+		}
+		return solution;
+	}
+
+	/**
+	 * Deals one card, picked at random from the ones not dealt yet, by swapping it into the next position of the array.
+	 * @param player - The player to deal to.
+	 * @param next - The next position of the array. Every position before it has been dealt.
+	 * @param random - The random number generator to pick with.
+	 */
+	private void dealNext(Player player, int next, GameRandom random) {
+		swap(next, next + random.nextInt(order.length - next));
+		player.updateHand(deck.get(order[next]));
+	}
+
+	/**
+	 * Swaps two entries of the position array.
+	 * @param a - The first entry.
+	 * @param b - The second entry.
+	 */
+	private void swap(int a, int b) {
+		int temp = order[a];
+		order[a] = order[b];
+		order[b] = temp;
+	}
+}
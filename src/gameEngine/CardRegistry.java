@@ -0,0 +1,134 @@
+package gameEngine;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives every card of one deck a dense int id, so that hands, seen sets, and suggestions can be compared by number rather than by name.
+ * Each load of a setup file or compiled board gets a registry of its own, and its cards are registered in the order they are declared, so
+ * a deck's ids always run from 0 to one less than the number of cards, however many other decks have been loaded before it. The first card
+ * registered with a name and type becomes the card every later lookup of that name and type returns.
+ * The board makes the registry of the deck it is playing active. Card objects created directly by name are looked up in the active
+ * registry, but never registered in it, since a deck's registry is shared by every game loaded from the same files. Names the deck doesn't
+ * have are registered in a registry of their own, kept for cards outside of any deck.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class CardRegistry {
+	//The registry of the deck being played, which cards created by name are looked up in.
+	private static volatile CardRegistry active = new CardRegistry();
+	//The registry cards created by name are given ids in when the active registry doesn't have them.
+	private static final CardRegistry OUTSIDE = new CardRegistry();
+	//Every card registered so far, indexed by id.
+	private final List<Card> cards;
+	//The id of every card registered so far, keyed by type and then by name.
+	private final Map<CardType, Map<String, Integer>> ids;
+
+	/**
+	 * Creates an empty registry, for a new deck.
+	 */
+	public CardRegistry() {
+		super();
+		cards = new ArrayList<Card>();
+		ids = new EnumMap<CardType, Map<String, Integer>>(CardType.class);
+	}
+
+	/**
+	 * Returns the registry of the deck being played.
+	 * @return - The active registry.
+	 */
+	public static CardRegistry getActive() {
+		return active;
+	}
+
+	/**
+	 * Makes a registry the one cards created by name are looked up in. Called by the board when it loads a deck.
+	 * @param registry - The registry of the deck being played.
+	 */
+	static void setActive(CardRegistry registry) {
+		active = registry;
+	}
+
+	/**
+	 * Returns the card created by name should copy: the card with the name and type provided in the active registry, or if it doesn't
+	 * have one, the card in the registry for cards outside of any deck, which is registered there if it's new. The active registry is
+	 * never changed.
+	 * @param name - The name of the card.
+	 * @param type - The type of the card.
+	 * @return - The registered card.
+	 */
+	static Card lookUp(String name, CardType type) {
+		Card card = active.findCard(name, type);
+		return (card != null) ? card : OUTSIDE.getCard(name, type);
+	}
+
+	/**
+	 * Returns the registered card with the name and type provided, registering it with the next id if there isn't one.
+	 * @param name - The name of the card.
+	 * @param type - The type of the card.
+	 * @return - The registered card.
+	 */
+	public synchronized Card getCard(String name, CardType type) {
+		return cards.get(getId(name, type));
+	}
+
+	/**
+	 * Returns the registered card with the id provided.
+	 * @param id - The id of a registered card.
+	 * @return - The card with that id.
+	 */
+	public synchronized Card getCard(int id) {
+		return cards.get(id);
+	}
+
+	/**
+	 * Returns the id of the card with the name and type provided, registering it with the next id if it hasn't been registered.
+	 * @param name - The name of the card.
+	 * @param type - The type of the card.
+	 * @return - The card's id.
+	 */
+	synchronized int getId(String name, CardType type) {
+		Map<String, Integer> names = ids.computeIfAbsent(type, key -> new HashMap<String, Integer>());
+		Integer id = names.get(name);
+		if(id == null) {
+			id = cards.size();
+			cards.add(new Card(name, type, id, this));
+			names.put(name, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the id of the card with the name and type provided, without registering one.
+	 * @param name - The name of the card.
+	 * @param type - The type of the card.
+	 * @return - The card's id, or -1 if no card with that name and type has been registered.
+	 */
+	public synchronized int findId(String name, CardType type) {
+		Map<String, Integer> names = ids.get(type);
+		Integer id = (names == null) ? null : names.get(name);
+		return (id == null) ? -1 : id;
+	}
+
+	/**
+	 * Returns the registered card with the name and type provided, without registering one.
+	 * @param name - The name of the card.
+	 * @param type - The type of the card.
+	 * @return - The registered card, or null if no card with that name and type has been registered.
+	 */
+	public synchronized Card findCard(String name, CardType type) {
+		int id = findId(name, type);
+		return (id < 0) ? null : cards.get(id);
+	}
+
+	/**
+	 * Returns the number of cards registered so far, which is one more than the largest id.
+	 * @return - The number of registered cards.
+	 */
+	public synchronized int size() {
+		return cards.size();
+	}
+}
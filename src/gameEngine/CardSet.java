@@ -0,0 +1,216 @@
+package gameEngine;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of cards kept as a bitmask over their ids in a CardRegistry, one bit per card in an array of longs. A deck of up to 64 cards fits in a
+ * single long, so adding, removing, and finding cards are single bit operations, and the cards two sets have in common are found with an
+ * AND of each word. Used for players' hands and seen cards, and for suggestions, and can be used anywhere a Set of cards is expected.
+ * Iterates over its cards in order of id. A set belongs to the registry of the first card added to it, or to the active registry if it is
+ * only ever given ids. A card from another registry is matched to the card with the same name and type in the set's own registry. The
+ * array starts at a single long and grows to fit the largest id added, so a set is never larger than its deck needs.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class CardSet extends AbstractSet<Card> {
+	//The bits of the set, with card id i held in bit i % 64 of words[i / 64].
+	private long[] words;
+	//The number of cards in the set.
+	private int size;
+	//The registry the ids are from, or null until the first card is added.
+	private CardRegistry registry;
+
+	/**
+	 * Creates an empty set.
+	 */
+	public CardSet() {
+		super();
+		words = new long[1];
+	}
+
+	/**
+	 * Creates a set holding the cards provided.
+	 * @param cards - The cards to add.
+	 */
+	public CardSet(Collection<? extends Card> cards) {
+		this();
+		addAll(cards);
+	}
+
+	/**
+	 * Returns the set provided if it is already a CardSet, or a new CardSet of its cards if it isn't.
+	 * @param cards - A set of cards.
+	 * @return - A CardSet holding the same cards.
+	 */
+	public static CardSet of(Collection<? extends Card> cards) {
+		if(cards instanceof CardSet) {
+			return (CardSet) cards;
+		}
+		return new CardSet(cards);
+	}
+
+	/**
+	 * Adds the card with the id provided.
+	 * @param id - The card's id.
+	 * @return - True if the card wasn't already in the set.
+	 */
+	public boolean addId(int id) {
+		if(id / 64 >= words.length) {
+			long[] grown = new long[Math.max(words.length * 2, id / 64 + 1)];
+			System.arraycopy(words, 0, grown, 0, words.length);
+			words = grown;
+		}
+		long bit = 1L << id;
+		if((words[id / 64] & bit) != 0) {
+			return false;
+		}
+		words[id / 64] |= bit;
+		size++;
+		return true;
+	}
+
+	/**
+	 * Removes the card with the id provided.
+	 * @param id - The card's id.
+	 * @return - True if the card was in the set.
+	 */
+	public boolean removeId(int id) {
+		if(!containsId(id)) {
+			return false;
+		}
+		words[id / 64] &= ~(1L << id);
+		size--;
+		return true;
+	}
+
+	/**
+	 * Returns true if the set holds the card with the id provided.
+	 * @param id - The card's id.
+	 * @return - True if the card is in the set.
+	 */
+	public boolean containsId(int id) {
+		return id >= 0 && id / 64 < words.length && (words[id / 64] & (1L << id)) != 0;
+	}
+
+	/**
+	 * Returns the lowest id of any card in both this set and the set provided, which should be from the same registry.
+	 * @param other - Another set of cards.
+	 * @return - The lowest common id, or -1 if the sets have no cards in common.
+	 */
+	public int firstCommon(CardSet other) {
+		int length = Math.min(words.length, other.words.length);
+		for(int k = 0; k < length; k++) {
+			long common = words[k] & other.words[k];
+			if(common != 0) {
+				return k * 64 + Long.numberOfTrailingZeros(common);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the lowest id in the set at or after the id provided.
+	 * @param from - The id to start from.
+	 * @return - The next id in the set, or -1 if there isn't one.
+	 */
+	public int nextId(int from) {
+		int k = from / 64;
+		if(from < 0 || k >= words.length) {
+			return -1;
+		}
+		long word = words[k] & (-1L << from);
+		while(word == 0) {
+			k++;
+			if(k == words.length) {
+				return -1;
+			}
+			word = words[k];
+		}
+		return k * 64 + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * Returns the registry the set's ids are from.
+	 * @return - The registry of the cards in the set, or the active registry if no card has been added.
+	 */
+	public CardRegistry getRegistry() {
+		return (registry == null) ? CardRegistry.getActive() : registry;
+	}
+
+	/**
+	 * Finds a card's id in the set's registry, for a card that may be from another registry.
+	 * @param card - The card.
+	 * @return - The card's id in the set's registry, or -1 if the set's registry has no card with its name and type.
+	 */
+	private int findId(Card card) {
+		if(card.getRegistry() == getRegistry()) {
+			return card.getId();
+		}
+		return getRegistry().findId(card.getName(), card.getType());
+	}
+
+	@Override
+	public boolean add(Card card) {
+		if(registry == null) {
+			registry = card.getRegistry();
+		}
+		if(card.getRegistry() == registry) {
+			return addId(card.getId());
+		}
+		return addId(registry.getId(card.getName(), card.getType()));
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		return o instanceof Card && removeId(findId((Card) o));
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return o instanceof Card && containsId(findId((Card) o));
+	}
+
+	@Override
+	public void clear() {
+		for(int k = 0; k < words.length; k++) {
+			words[k] = 0;
+		}
+		size = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Iterator<Card> iterator() {
+		return new Iterator<Card>() {
+			private int next = nextId(0), last = -1;
+
+			public boolean hasNext() {
+				return next >= 0;
+			}
+
+			public Card next() {
+				if(!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				last = next;
+				next = nextId(next + 1);
+				return getRegistry().getCard(last);
+			}
+
+			public void remove() {
+				if(last < 0) {
+					throw new IllegalStateException();
+				}
+				removeId(last);
+				last = -1;
+			}
+		};
+	}
+}
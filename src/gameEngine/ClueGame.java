@@ -1,5 +1,6 @@
 package gameEngine;
 import java.awt.BorderLayout;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Set;
 
@@ -27,7 +28,7 @@ public class ClueGame extends JFrame{
 	/**
 	 * The main entry point for our game. Creates a new ClueGame frame, populates itself with the main 3 components that it requires, mainly the
 	 * board, control panel, and card panel, presents the splash screen dialogue, then launches the first turn.
-	 * @param args
+	 * @param args - Pass --watch to reload the layout and setup files into the game whenever they are saved.
 	 */
 	public static void main (String[] args) {
 		//Get the game board and initialize it both as the game's engine and as the panel in the GUI
@@ -83,6 +84,16 @@ public class ClueGame extends JFrame{
 		//Let the frame be visible.
 		gameFrame.setVisible(true);
 		
+		//If asked to, reload the config files into the game as they are edited.
+		if(args.length > 0 && args[0].equals("--watch")) {
+			try {
+				new ConfigWatcher(board).start();
+			}
+			catch(IOException e) {
+				System.out.println("Could not watch the config files for changes.");
+			}
+		}
+		
 		//Start the game by launching the first turn.
 		board.handleTurn();
 		controlPanel.displayRoll(board.getCurrentRoll());
@@ -0,0 +1,148 @@
+package gameEngine;
+
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * An immutable, compact copy of the board's adjacency lists. The neighbors of every cell are stored back to back in a single int array
+ * (compressed sparse row form), so the neighbors of cell i are found in neighbors[offsets[i]] through neighbors[offsets[i + 1] - 1]. Built
+ * straight from the layout by Board.setAdjLists(), read from compiled board files, and copied with some cells' neighbors replaced when
+ * Board reloads a few cells of its layout.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class CompactBoardGraph extends BoardGraph {
+	//Compressed sparse row adjacency.
+	private int[] offsets;
+	private int[] neighbors;
+
+	/**
+	 * Builds the graph for the board provided. Every cell's neighbors are counted first, so the arrays can be allocated at their final size,
+	 * and then written straight into them. The cells' own adjacency lists are not read or set.
+	 * @param gameBoard - The game board.
+	 * @param roomMap - The board's rooms, keyed by initial, with their center cells set.
+	 * @param parallel - True to count and write the walkways' neighbors in parallel bands of rows.
+	 */
+	public CompactBoardGraph(BoardCell[][] gameBoard, Map<Character, Room> roomMap, boolean parallel) {
+		super(gameBoard);
+
+		//Room centers are linked to cells anywhere on the board, so their lists are found first.
+		Map<Integer, int[]> centerLists = findCenterLists(gameBoard, roomMap);
+
+		//Count the neighbors of every cell, then add the counts up to find where each cell's neighbors start.
+		offsets = new int[cells.length + 1];
+		new RowBand(gameBoard, roomMap, 0, height, false, parallel).invoke();
+		for(Map.Entry<Integer, int[]> entry : centerLists.entrySet()) {
+			offsets[entry.getKey() + 1] = entry.getValue().length;
+		}
+		for(int id = 0; id < cells.length; id++) {
+			offsets[id + 1] += offsets[id];
+		}
+
+		//Write every walkway's neighbors into its part of the neighbor array, then every room center's.
+		neighbors = new int[offsets[cells.length]];
+		new RowBand(gameBoard, roomMap, 0, height, true, parallel).invoke();
+		for(Map.Entry<Integer, int[]> entry : centerLists.entrySet()) {
+			System.arraycopy(entry.getValue(), 0, neighbors, offsets[entry.getKey()], entry.getValue().length);
+		}
+	}
+
+	/**
+	 * Creates the graph from adjacency that has already been put in compressed sparse row form, such as a graph read from a compiled board
+	 * file. The cells' own adjacency lists are not read.
+	 * @param gameBoard - The game board.
+	 * @param offsets - Where each cell's neighbors start in the neighbor array, with one extra entry for the end of the last cell's neighbors.
+	 * @param neighbors - The indices of every cell's neighbors, back to back.
+	 */
+	public CompactBoardGraph(BoardCell[][] gameBoard, int[] offsets, int[] neighbors) {
+		super(gameBoard);
+		this.offsets = offsets;
+		this.neighbors = neighbors;
+	}
+
+	/**
+	 * Creates a copy of a graph for the same size of board after some of its cells have changed, such as when the layout file is reloaded.
+	 * Cells with new neighbors are given them, and every other cell keeps its neighbors from the old graph.
+	 * @param old - The graph before the change.
+	 * @param gameBoard - The game board after the change, the same size as before.
+	 * @param replaced - The new neighbors of each cell that has them, indexed by cell, or null for a cell that keeps its old neighbors.
+	 */
+	public CompactBoardGraph(BoardGraph old, BoardCell[][] gameBoard, int[][] replaced) {
+		super(gameBoard);
+		offsets = new int[cells.length + 1];
+		for(int id = 0; id < cells.length; id++) {
+			offsets[id + 1] = offsets[id] + ((replaced[id] != null) ? replaced[id].length : old.getDegree(id));
+		}
+		neighbors = new int[offsets[cells.length]];
+		for(int id = 0; id < cells.length; id++) {
+			if(replaced[id] != null) {
+				System.arraycopy(replaced[id], 0, neighbors, offsets[id], replaced[id].length);
+			}
+			else {
+				for(int k = 0; k < old.getDegree(id); k++) {
+					neighbors[offsets[id] + k] = old.getNeighbor(id, k);
+				}
+			}
+		}
+	}
+
+	@Override
+	public BoardGraph copyFor(BoardCell[][] gameBoard, Map<Character, Room> roomMap) {
+		//The arrays are never changed once the graph is built, so the copy shares them.
+		return new CompactBoardGraph(gameBoard, offsets, neighbors);
+	}
+
+	@Override
+	public int getDegree(int id) {
+		return offsets[id + 1] - offsets[id];
+	}
+
+	@Override
+	public int getNeighbor(int id, int k) {
+		return neighbors[offsets[id] + k];
+	}
+
+	/**
+	 * A band of rows whose walkways' neighbors are counted, or written to the neighbor array, as one fork/join task. Each walkway only
+	 * writes to its own entries, so bands never write to the same place. If the band is parallel, bands larger than Board.MIN_BAND_ROWS * 2
+	 * rows are split in half.
+	 */
+	private class RowBand extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private BoardCell[][] gameBoard;
+		private Map<Character, Room> roomMap;
+		private int firstRow, endRow;
+		//Whether the neighbors are written, rather than counted, and whether the band may be split.
+		private boolean fill, parallel;
+
+		public RowBand(BoardCell[][] gameBoard, Map<Character, Room> roomMap, int firstRow, int endRow, boolean fill, boolean parallel) {
+			this.gameBoard = gameBoard;
+			this.roomMap = roomMap;
+			this.firstRow = firstRow;
+			this.endRow = endRow;
+			this.fill = fill;
+			this.parallel = parallel;
+		}
+
+		@Override
+		protected void compute() {
+			if(parallel && endRow - firstRow >= Board.MIN_BAND_ROWS * 2) {
+				int middle = (firstRow + endRow) / 2;
+				invokeAll(new RowBand(gameBoard, roomMap, firstRow, middle, fill, parallel),
+						new RowBand(gameBoard, roomMap, middle, endRow, fill, parallel));
+				return;
+			}
+			for(int i = firstRow; i < endRow; i++) {
+				for(int j = 0; j < width; j++) {
+					int id = i * width + j;
+					if(fill) {
+						LazyBoardGraph.findNeighbors(gameBoard, roomMap, i, j, neighbors, offsets[id]);
+					}
+					else {
+						offsets[id + 1] = LazyBoardGraph.findNeighbors(gameBoard, roomMap, i, j, null, 0);
+					}
+				}
+			}
+		}
+	}
+}
@@ -2,9 +2,9 @@ package gameEngine;
 
 import java.awt.Color;
 import java.util.Set;
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.Comparator;
 
 /**
  * Object that simulates another player in the game, ran entirely by the computer. Contains much of the same data 
@@ -47,27 +47,18 @@ public class ComputerPlayer extends Player{
 	 */
 	public Set<Card> createSuggestion(){
 		//Create a new set to hold the suggestion.
-		Set<Card> suggestion = new HashSet<Card>();
-		//Create a copy of the deck.
-		ArrayList<Card> deckCopy = new ArrayList<Card>(Board.getInstance().getDeck());
+		CardSet suggestion = new CardSet();
 		//Get the seen list
-		Set<Card> seen = getSeen();
-		//Iterate through the deck and the seen list
-		for(Card dCard : this.getBoard().getDeck()) {
-			for(Card sCard : seen) {
-				//Any elements that have already been seen or that are room cards are removed.
-				if (dCard.equals(sCard) || dCard.getType().equals(CardType.ROOM)) {
-					deckCopy.remove(dCard);
-					break;
-				}
-			}
-		}
+		CardSet seen = getSeen();
 		
-		//Create 2 sets to hold all the remaining weapon and person cards.
-		Set<Card> weapons = new HashSet<Card>();
-		Set<Card> people = new HashSet<Card>();
-		//Separate deckCopy into sets based on their card type.
-		for(Card card : deckCopy) {
+		//Create 2 sets to hold all the weapon and person cards that haven't been seen.
+		CardSet weapons = new CardSet();
+		CardSet people = new CardSet();
+		//Separate the unseen cards of the deck into sets based on their card type. Cards are looked up by id, so no names are compared.
+		for(Card card : this.getBoard().getDeck()) {
+			if(seen.containsId(card.getId())) {
+				continue;
+			}
 			switch(card.getType()) {
 			case PERSON:
 				people.add(card);
@@ -87,8 +78,8 @@ public class ComputerPlayer extends Player{
 		
 		//If not, populate the suggestion set.
 		else {
-			//Create a random number generator, and pick a random number
-			Random random = new Random();
+			//Pick a random number with the player's own generator
+			GameRandom random = getRandom();
 			int rand = random.nextInt(weapons.size());
 			//Iterate through weapons, incrementing i until the random element selected is found.
 			int i = 0;
@@ -114,13 +105,10 @@ public class ComputerPlayer extends Player{
 				i++;
 			}
 
-			//Get the name of the room that the player occupies as a string.
+			//Add the card for the room the player occupies.
 			BoardCell pos = this.getPosition();
-			Board board = Board.getInstance();
-			Room room = board.getRoom(pos);
-			String roomName = room.getName();
-			//Add a card based on the name of the room the player occupies
-			suggestion.add(new Card(roomName, CardType.ROOM));
+			Room room = this.getBoard().getRoom(pos);
+			suggestion.add(room.getCard());
 			
 			//Return the suggestion.
 			return suggestion;
@@ -147,8 +135,8 @@ public class ComputerPlayer extends Player{
 	 * @return - The board cell to move the ComputerPlayer to.
 	 */
 	public BoardCell selectTarget() {
-		//Get a copy of the list of targets generated by the board
-		Set<BoardCell> targets = this.getBoard().getTargets();
+		//Get a copy of the list of targets generated by the board, so the board's own set isn't changed
+		Set<BoardCell> targets = new HashSet<BoardCell>(this.getBoard().getTargets());
 		//If the player was moved to a room by a suggestion, allow them to stay in the room they are in.
 		if(this.getCanStay() || targets.size() == 0) {
 			targets.add(getPosition());
@@ -158,15 +146,10 @@ public class ComputerPlayer extends Player{
 		Set<BoardCell> rooms = new HashSet<BoardCell>(targets);
 		//Iterate through every target now copied to rooms
 		for(BoardCell target : targets) {
-			//If the tile is a room, compare it's name with the name of every car in seen
+			//If the tile is a room and its card has been seen, remove it from the valid rooms list.
 			if(target.isRoomCenter()) {
-				String roomName = this.getBoard().getRoom(target).getName();
-				for(Card card : this.getSeen()) {
-					//If the room's card is found in seen, remove from the valid rooms list and stop checking cards.
-					if(card.getName().equals(roomName)) {
-						rooms.remove(target);
-						break;
-					}
+				if(this.getSeen().contains(this.getBoard().getRoom(target).getCard())) {
+					rooms.remove(target);
 				}
 			}
 			//If the tile isn't a room, it doesn't belong in rooms, so it must be removed.
@@ -175,38 +158,19 @@ public class ComputerPlayer extends Player{
 			}
 		}
 		
-		//Create a new random object
-		Random random = new Random();
-		//If there exists at least one valid unseen room, pick randomly and return it
-		if(rooms.size() > 0) {
-			//Pick a random index
-			int rand = random.nextInt(rooms.size());
-			int i = 0;
-			//Iterate to that index and return the cell.
-			for(BoardCell room : rooms) {
-				if(rand == i) {
-					return room;
-				}
-				i++;
-			}
-			//This should never execute
-			return null;
-		}
-		
-		//If not, pick a random cell from targets and return it.
-		else {
-			//Pick a random index
-			int rand = random.nextInt(targets.size());
-			int i = 0;
-			//Iterate to that index and return the cell.
-			for(BoardCell target : targets) {
-				if(rand == i) {
-					return target;
-				}
-				i++;
-			}
-			//This should never execute
-			return null;
-		}
+		//If there exists at least one valid unseen room, pick randomly and return it. If not, pick a random cell from targets and return it.
+		return chooseCell(rooms.size() > 0 ? rooms : targets);
+	}
+	
+	/**
+	 * Picks one of a set of cells at random. The cells are put in row and column order first, so the pick only depends on the player's
+	 * generator, and not on the order the set happens to hold them in.
+	 * @param cells - The cells to pick from. Must not be empty.
+	 * @return - The cell picked.
+	 */
+	private BoardCell chooseCell(Set<BoardCell> cells) {
+		BoardCell[] ordered = cells.toArray(new BoardCell[cells.size()]);
+		Arrays.sort(ordered, Comparator.comparingInt(BoardCell::getRow).thenComparingInt(BoardCell::getCol));
+		return ordered[getRandom().nextInt(ordered.length)];
 	}
 }
\ No newline at end of file
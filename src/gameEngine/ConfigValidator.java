@@ -0,0 +1,152 @@
+package gameEngine;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks a setup and layout file for every problem in one pass, instead of stopping at the first one the way Board.initialize() does. The
+ * files are read by the same parsers the board uses, with a ValidationReport collecting their problems, and then the loaded board is checked
+ * for the problems that would stop a game from being played: a setup file missing a type of card, rooms without a center or label cell, and
+ * doors that don't lead into a room. Nothing is written to the error log, so many candidate files can be checked quickly. Each run reads
+ * the cards into a registry of its own that is thrown away afterwards, so validating files never changes the registry of the game in
+ * progress, however many files are checked.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class ConfigValidator {
+
+	/**
+	 * Files are only validated through the static methods.
+	 */
+	private ConfigValidator() {
+	}
+
+	/**
+	 * Reads a setup and layout file and reports every problem in them.
+	 * @param layoutConfigFile - The path of the layout file.
+	 * @param setupConfigFile - The path of the setup file.
+	 * @return - A report of every problem found, which is valid if there were none.
+	 */
+	public static ValidationReport validate(String layoutConfigFile, String setupConfigFile) {
+		ValidationReport report = new ValidationReport();
+		Map<Character, Room> roomMap = new HashMap<Character, Room>();
+		List<Card> deck = new ArrayList<Card>();
+		List<Player> players = new ArrayList<Player>();
+		//The cards and players are only needed for this run, so they don't go in the active registry.
+		CardRegistry registry = new CardRegistry();
+		try {
+			SetupParser setupParser = new SetupParser(setupConfigFile, registry);
+			setupParser.setReport(report);
+			setupParser.parse(roomMap, deck, players);
+			//Without a setup file, every card type would be missing and every room in the layout unknown, so stop here.
+			if(!report.getProblems(ProblemType.MISSING_FILE).isEmpty()) {
+				return report;
+			}
+			checkCardTypes(report, setupConfigFile, deck);
+
+			LayoutParser layoutParser = new LayoutParser(layoutConfigFile, setupConfigFile, roomMap);
+			layoutParser.setReport(report);
+			BoardCell[][] gameBoard = layoutParser.parse();
+			//Likewise, without a layout every room would be missing its center and label.
+			if(gameBoard.length == 0) {
+				return report;
+			}
+			checkRooms(report, layoutConfigFile, roomMap, setupParser.getRoomInitials());
+			checkDoors(report, layoutConfigFile, gameBoard);
+		}
+		//The parsers only throw when they have no report, so this can't happen.
+		catch(BadConfigFormatException e) {
+			throw new IllegalStateException(e);
+		}
+		return report;
+	}
+
+	/**
+	 * Reports each type of card the setup file doesn't declare, since the cards can't be dealt without one of each.
+	 * @param report - The report to add problems to.
+	 * @param setupConfigFile - The path of the setup file.
+	 * @param deck - The cards declared in the setup file.
+	 */
+	private static void checkCardTypes(ValidationReport report, String setupConfigFile, List<Card> deck) {
+		Set<CardType> missing = EnumSet.allOf(CardType.class);
+		for(Card card : deck) {
+			missing.remove(card.getType());
+		}
+		for(CardType type : missing) {
+			report.add(ProblemType.MISSING_CARD_TYPE, setupConfigFile, -1, "Error: Setup file " + setupConfigFile + " does not specify any " + type
+					+ " cards.");
+		}
+	}
+
+	/**
+	 * Reports each room that has no center cell or no label cell in the layout. Spaces, like walkways, don't need either.
+	 * @param report - The report to add problems to.
+	 * @param layoutConfigFile - The path of the layout file.
+	 * @param roomMap - The rooms, with the centers and labels the layout file set.
+	 * @param roomInitials - The initials of the rooms declared in the setup file, in order.
+	 */
+	private static void checkRooms(ValidationReport report, String layoutConfigFile, Map<Character, Room> roomMap, List<Character> roomInitials) {
+		for(char initial : roomInitials) {
+			Room room = roomMap.get(initial);
+			if(room.getCenterCell() == null) {
+				report.add(ProblemType.MISSING_CENTER, layoutConfigFile, -1, "Room " + room.getName() + " (" + initial + ") has no center cell in "
+						+ layoutConfigFile + ".");
+			}
+			if(room.getLabelCell() == null) {
+				report.add(ProblemType.MISSING_LABEL, layoutConfigFile, -1, "Room " + room.getName() + " (" + initial + ") has no label cell in "
+						+ layoutConfigFile + ".");
+			}
+		}
+	}
+
+	/**
+	 * Reports each door that points off the board or into a cell that isn't part of a room.
+	 * @param report - The report to add problems to.
+	 * @param layoutConfigFile - The path of the layout file.
+	 * @param gameBoard - The cells read from the layout file.
+	 */
+	private static void checkDoors(ValidationReport report, String layoutConfigFile, BoardCell[][] gameBoard) {
+		for(int i = 0; i < gameBoard.length; i++) {
+			for(int j = 0; j < gameBoard[i].length; j++) {
+				//Find the cell the door leads into.
+				int row = i, col = j;
+				switch(gameBoard[i][j].getDoorDirection()) {
+				case UP:
+					row--;
+					break;
+				case DOWN:
+					row++;
+					break;
+				case LEFT:
+					col--;
+					break;
+				case RIGHT:
+					col++;
+					break;
+				case NONE:
+					continue;
+				}
+				if(row < 0 || row >= gameBoard.length || col < 0 || col >= gameBoard[row].length || !gameBoard[row][col].getisInRoom()) {
+					report.add(ProblemType.DOOR_INTO_NON_ROOM, layoutConfigFile, i, "Invalid line format on line " + i + " in " + layoutConfigFile
+							+ ", door at column " + j + " does not lead into a room.");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Validates a setup and layout file from the command line, printing every problem found.
+	 * @param args - The layout file and setup file, both in the "data/" directory.
+	 */
+	public static void main(String[] args) {
+		if(args.length != 2) {
+			System.out.println("Usage: ConfigValidator <layout file> <setup file>");
+			return;
+		}
+		System.out.println(validate("data/" + args[0], "data/" + args[1]));
+	}
+}
@@ -0,0 +1,135 @@
+package gameEngine;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Watches the board's layout and setup files while a game is running, and reloads them into the game when they are saved. A background
+ * thread waits on a WatchService for the files' directory. Editors often write a file in several steps, so once a change is seen the thread
+ * waits until no more changes arrive for SETTLE_MILLIS before reloading. The reload itself runs on the event dispatch thread, so it never
+ * happens in the middle of a turn or while the board is being drawn. See Board.reloadLayout() and Board.reloadSetup().
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class ConfigWatcher {
+	//How long the files must go without changing before they are reloaded.
+	public static final long SETTLE_MILLIS = 100;
+	//The board being watched for, and the full paths of its files.
+	private Board board;
+	private Path layoutFile, setupFile;
+	private WatchService watchService;
+
+	/**
+	 * Creates a watcher for the files the board was last initialized with.
+	 * @param board - The board to reload.
+	 */
+	public ConfigWatcher(Board board) {
+		super();
+		this.board = board;
+	}
+
+	/**
+	 * Starts watching the files.
+	 * @throws IOException - If the files' directory can't be watched.
+	 */
+	public void start() throws IOException {
+		layoutFile = Paths.get(board.getLayoutConfigFile()).toAbsolutePath().normalize();
+		setupFile = Paths.get(board.getSetupConfigFile()).toAbsolutePath().normalize();
+		watchService = FileSystems.getDefault().newWatchService();
+		register(layoutFile.getParent());
+		if(!setupFile.getParent().equals(layoutFile.getParent())) {
+			register(setupFile.getParent());
+		}
+		Thread watcher = new Thread(this::watch, "ConfigWatcher");
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	/**
+	 * Stops watching the files.
+	 */
+	public void stop() {
+		try {
+			watchService.close();
+		}
+		catch(IOException e) {
+			System.out.println("Could not stop watching the config files.");
+		}
+	}
+
+	/**
+	 * Watches a directory for files being created or changed.
+	 * @param directory - The directory to watch.
+	 * @throws IOException - If the directory can't be watched.
+	 */
+	private void register(Path directory) throws IOException {
+		directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+	}
+
+	/**
+	 * The background thread's loop: wait for a change to either file, wait for the changes to settle, then reload.
+	 */
+	private void watch() {
+		try {
+			while(true) {
+				WatchKey key = watchService.take();
+				boolean layoutChanged = false, setupChanged = false;
+				//Keep collecting changes until none arrive for SETTLE_MILLIS.
+				while(key != null) {
+					for(WatchEvent<?> event : key.pollEvents()) {
+						//If events were lost, either file may have changed.
+						if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+							layoutChanged = true;
+							setupChanged = true;
+							continue;
+						}
+						Path changed = ((Path) key.watchable()).resolve((Path) event.context()).toAbsolutePath().normalize();
+						layoutChanged |= changed.equals(layoutFile);
+						setupChanged |= changed.equals(setupFile);
+					}
+					key.reset();
+					key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				if(layoutChanged || setupChanged) {
+					boolean setup = setupChanged;
+					SwingUtilities.invokeLater(() -> reload(setup));
+				}
+			}
+		}
+		//The watcher was stopped.
+		catch(InterruptedException | ClosedWatchServiceException e) {
+			return;
+		}
+	}
+
+	/**
+	 * Reloads the files into the board. Runs on the event dispatch thread. A bad file leaves the board as it was, so the file can be fixed and
+	 * saved again.
+	 * @param setupChanged - True if the setup file changed, which also reloads the layout file.
+	 */
+	private void reload(boolean setupChanged) {
+		try {
+			if(setupChanged) {
+				if(!board.reloadSetup()) {
+					System.out.println("The setup file changed the rooms, cards, or players. Please restart the game to use it.");
+				}
+			}
+			else {
+				board.reloadLayout();
+			}
+		}
+		catch(BadConfigFormatException e) {
+			System.out.println("Could not reload the config files, keeping the current board. Please check the log file in data for more information.");
+		}
+	}
+}
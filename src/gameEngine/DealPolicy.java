@@ -0,0 +1,12 @@
+package gameEngine;
+/**
+ * Simple enumeration to declare how the cards left after drawing the solution are dealt amongst the players.
+ * EVEN deals every card, one to each player in turn, so hands differ in size by at most one card.
+ * FIXED deals a set number of cards to each player in turn, leaving any cards beyond that undealt.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ *
+ */
+public enum DealPolicy {
+	EVEN, FIXED;
+}
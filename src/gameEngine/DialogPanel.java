@@ -45,27 +45,26 @@ public abstract class DialogPanel extends JDialog {
 		
 		//Get the deck and sort the cards by type.
 		ArrayList<Card> cards = board.getDeck();
-		Card[] People = new Card[6];
-		Card[] Weapons = new Card[6];
-		int i = 0, j = 0;
+		ArrayList<Card> People = new ArrayList<Card>();
+		ArrayList<Card> Weapons = new ArrayList<Card>();
 		for(Card card : cards) {
 			switch(card.getType()) {
 			case PERSON:
-				People[i] = card;
-				i++;
+				People.add(card);
 				break;
 			case WEAPON:
-				Weapons[j] = card;
-				j++;
+				Weapons.add(card);
+				break;
+			default:
 				break;
 			}
 		}
 		
-		//Create the labels, combo boxes, and buttons.
+		//Create the labels, combo boxes, and buttons. The boxes hold however many cards of each type the setup file declared.
 		personLabel = new JLabel("Person");
-		personBox = new JComboBox<Card>(People);
+		personBox = new JComboBox<Card>(People.toArray(new Card[0]));
 		weaponLabel = new JLabel("Weapon");
-		weaponBox = new JComboBox<Card>(Weapons);
+		weaponBox = new JComboBox<Card>(Weapons.toArray(new Card[0]));
 		submitButton = new JButton("Submit");
 		cancelButton = new JButton("Cancel");
 
@@ -0,0 +1,177 @@
+package gameEngine;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes configuration errors to data/errorlog.txt without making the thread that found them wait on the file. Errors are put in a bounded
+ * queue, and a background thread takes them off in batches, appending each batch to the log with a single write. If errors arrive faster than they can be written and the queue fills up, further errors are counted rather than queued, and a
+ * line saying how many were dropped is written once there is room. Anything still queued when the program exits is written by a shutdown hook.
+ * Only the background thread writes errors while it is running, so they are always written in the order they were logged.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class ErrorLog {
+	//The file errors are appended to unless another is set.
+	public static final String LOG_FILE = "data/errorlog.txt";
+	//The file errors are currently appended to.
+	private static volatile String logFile = LOG_FILE;
+	//The most errors that can be waiting to be written, and the most written at once.
+	public static final int QUEUE_CAPACITY = 4096;
+	public static final int MAX_BATCH = 256;
+	//Errors waiting to be written.
+	private static final BlockingQueue<String> queue = new ArrayBlockingQueue<String>(QUEUE_CAPACITY);
+	//Held while a batch is being written, and waited on by flush(). Logging an error never takes it.
+	private static final Object writeLock = new Object();
+	//Errors that have been logged but not yet written, including any the writer has taken off the queue, and errors dropped since the last
+	//batch was written.
+	private static final AtomicInteger pending = new AtomicInteger(), dropped = new AtomicInteger();
+	//Whether the background writer has been started, the first time an error is logged, and the writer itself.
+	private static volatile boolean started;
+	private static Thread writer;
+
+	/**
+	 * Errors are only logged through the static methods.
+	 */
+	private ErrorLog() {
+	}
+
+	/**
+	 * Queues an error to be written to the log. Never waits on the file.
+	 * @param message - The error message.
+	 */
+	public static void log(String message) {
+		if(!started) {
+			startWriter();
+		}
+		//Count the error before it is queued, so the writer can never finish it before it is counted.
+		pending.incrementAndGet();
+		if(!queue.offer(message)) {
+			pending.decrementAndGet();
+			dropped.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Waits until every error logged so far has been written to the log.
+	 */
+	public static void flush() {
+		synchronized(writeLock) {
+			//Wait for the writer to write everything, rather than writing here. The writer takes an error off the queue before it takes the
+			//lock, so writing here could put errors queued after that one ahead of it.
+			while(pending.get() > 0) {
+				//If the writer has stopped, nothing else is writing, so whatever is left can be written here in order.
+				if(writer == null || !writer.isAlive()) {
+					writeBatch(MAX_BATCH);
+					break;
+				}
+				try {
+					writeLock.wait(100);
+				}
+				catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+			//Report any errors dropped since the last batch was written.
+			if(dropped.get() > 0) {
+				write(new ArrayList<String>());
+			}
+		}
+	}
+
+	/**
+	 * Sends errors to another file from now on, such as a temporary file in a test, so the game's own log isn't filled. Everything logged
+	 * before the change is written to the old file first.
+	 * @param fileName - The path of the file to append errors to, or null to go back to LOG_FILE.
+	 */
+	public static void setLogFile(String fileName) {
+		synchronized(writeLock) {
+			flush();
+			logFile = (fileName == null) ? LOG_FILE : fileName;
+		}
+	}
+
+	/**
+	 * Returns the file errors are currently appended to.
+	 * @return - The path of the log file.
+	 */
+	public static String getLogFile() {
+		return logFile;
+	}
+
+	/**
+	 * Starts the background writer and the shutdown hook, if they haven't been started.
+	 */
+	private static synchronized void startWriter() {
+		if(started) {
+			return;
+		}
+		writer = new Thread(ErrorLog::writeForever, "ErrorLog writer");
+		writer.setDaemon(true);
+		writer.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(ErrorLog::flush, "ErrorLog flush"));
+		started = true;
+	}
+
+	/**
+	 * The background writer's loop: wait for an error, then write it along with everything queued behind it.
+	 */
+	private static void writeForever() {
+		while(true) {
+			try {
+				String first = queue.take();
+				synchronized(writeLock) {
+					List<String> batch = new ArrayList<String>();
+					batch.add(first);
+					queue.drainTo(batch, MAX_BATCH - 1);
+					write(batch);
+				}
+			}
+			catch(InterruptedException e) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Takes everything off the queue and writes it, the number of errors provided at a time. Must be called while holding the write lock, and
+	 * only when the background writer isn't running.
+	 * @param max - The most errors to write.
+	 */
+	private static void writeBatch(int max) {
+		List<String> batch = new ArrayList<String>();
+		while(queue.drainTo(batch, max) > 0) {
+			write(batch);
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Appends a batch of errors to the log file in a single write. Must be called while holding the write lock.
+	 * @param batch - The errors to write.
+	 */
+	private static void write(List<String> batch) {
+		StringBuilder text = new StringBuilder();
+		for(String message : batch) {
+			text.append(message).append("\n");
+		}
+		int droppedCount = dropped.getAndSet(0);
+		if(droppedCount > 0) {
+			text.append(droppedCount).append(" more errors were dropped because the log could not keep up.\n");
+		}
+		try(FileWriter fileWriter = new FileWriter(logFile, true)) {
+			fileWriter.write(text.toString());
+		}
+		catch(IOException e) {
+			System.out.println("Could not write to " + logFile + ".");
+		}
+		pending.addAndGet(-batch.size());
+		writeLock.notifyAll();
+	}
+}
@@ -0,0 +1,96 @@
+package gameEngine;
+
+import java.util.SplittableRandom;
+
+/**
+ * The source of every random choice in a game: dealing the cards, rolling the die, and the computer players' suggestions and moves. Each
+ * game's generator is seeded once, and everything that needs its own stream of random numbers, like each computer player or a worker
+ * running games in parallel, is handed a generator split off from it. A split generator is independent of its parent and shares no state
+ * with it, so streams never contend with each other, and two games started from the same seed make exactly the same choices.
+ * A GameRandom is not safe to share between threads; split one off for each thread instead.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class GameRandom {
+	//The generator every number is drawn from.
+	private SplittableRandom random;
+	//The seed this generator was created with. Split generators have no seed of their own, and hold false in hasSeed.
+	private long seed;
+	private boolean hasSeed;
+
+	/**
+	 * Creates a generator with a seed that is different every time, for games that don't need to be reproduced.
+	 */
+	public GameRandom() {
+		this(new SplittableRandom().nextLong());
+	}
+
+	/**
+	 * Creates a generator from a seed. Generators created from the same seed return the same numbers, and split off the same generators.
+	 * @param seed - The seed.
+	 */
+	public GameRandom(long seed) {
+		super();
+		this.seed = seed;
+		hasSeed = true;
+		random = new SplittableRandom(seed);
+	}
+
+	/**
+	 * Wraps a generator split off from another one. It has no seed of its own, since no seed recreates a split stream on its own.
+	 * @param random - The split generator.
+	 */
+	private GameRandom(SplittableRandom random) {
+		super();
+		this.random = random;
+		hasSeed = false;
+	}
+
+	/**
+	 * Splits off a new, independent generator, for a player or a worker thread, using SplittableRandom.split() so the new stream doesn't
+	 * overlap this one. Splitting advances this generator, so the generators split off in the same order from the same seed are always the
+	 * same. To replay a split generator, replay the generator it was split from.
+	 * @return - The new generator, which has no seed of its own.
+	 */
+	public GameRandom split() {
+		return new GameRandom(random.split());
+	}
+
+	/**
+	 * Returns a random number from 0 up to, but not including, the bound.
+	 * @param bound - The number of possible results. Must be positive.
+	 * @return - The random number.
+	 */
+	public int nextInt(int bound) {
+		return random.nextInt(bound);
+	}
+
+	/**
+	 * Rolls a die.
+	 * @param sides - The number of sides on the die.
+	 * @return - A random number from 1 to sides.
+	 */
+	public int roll(int sides) {
+		return random.nextInt(sides) + 1;
+	}
+
+	/**
+	 * Returns whether the generator was created from a seed, rather than split off from another generator.
+	 * @return - True if getSeed() can be called.
+	 */
+	public boolean hasSeed() {
+		return hasSeed;
+	}
+
+	/**
+	 * Returns the seed this generator was created with, so a game can be replayed.
+	 * @return - The seed.
+	 * @throws IllegalStateException - If the generator was split off from another one, and so has no seed of its own.
+	 */
+	public long getSeed() {
+		if(!hasSeed) {
+			throw new IllegalStateException("A split generator has no seed of its own. Replay the generator it was split from instead.");
+		}
+		return seed;
+	}
+}
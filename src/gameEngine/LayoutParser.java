@@ -0,0 +1,500 @@
+package gameEngine;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Reads a layout file into a grid of board cells without building a string for every line or tile. The file is read straight into a byte
+ * buffer (memory mapped if it is large), each line is split into tiles by recording where every tile starts and ends, and each tile is
+ * decoded directly from the buffer. Layout files are read as single byte characters. Lines are split the same way String.split(",") would
+ * split them, and a bad line is reported with the same BadConfigFormatException messages the board has always used.
+ * If a ValidationReport is set, every bad line and tile is added to the report instead of being thrown, and the rest of the file is still
+ * read. A bad tile becomes an unused cell, or a plain room cell if only its secret passage is bad, and a line with the wrong number of tiles
+ * is cut off or padded with unused cells.
+ * Large files can be parsed in parallel, see setParallel(). The result is the same as parsing them in order: the same cells, the same room
+ * centers and labels, and the same first error.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class LayoutParser {
+	//Files at least this large are memory mapped rather than read into the heap.
+	public static final int MAP_THRESHOLD = 1 << 16;
+	//When parsing in parallel, the fewest bytes a chunk of the file will hold.
+	public static final int MIN_CHUNK_BYTES = 1 << 16;
+	//The name of the file being parsed, used in error messages, and the name of the setup file that goes with it.
+	private String layoutConfigFile, setupConfigFile;
+	//The rooms specified by the setup file, keyed by initial.
+	private Map<Character, Room> roomMap;
+	//The bytes of the file being parsed.
+	private ByteBuffer buffer;
+	//Where each tile in the current line starts and ends (exclusive) in the buffer.
+	private int[] tileStarts, tileEnds;
+	//Where problems are added when validating, or null if the first problem should be thrown.
+	private ValidationReport report;
+	//Whether large files are parsed in parallel chunks.
+	private boolean parallel;
+	//Set only on the parsers for parallel chunks: the room centers and labels found, in order, to be saved in their rooms once every chunk
+	//is done, so that rooms end up with the same cells no matter which chunk finished first.
+	private List<BoardCell> roomCells;
+
+	/**
+	 * Creates a parser for the layout file provided.
+	 * @param layoutConfigFile - The path of the layout file.
+	 * @param setupConfigFile - The path of the setup file, used in the message thrown if the layout file is missing.
+	 * @param roomMap - The rooms loaded from the setup file, keyed by initial. Centers and labels are saved into these rooms as they are found.
+	 */
+	public LayoutParser(String layoutConfigFile, String setupConfigFile, Map<Character, Room> roomMap) {
+		super();
+		this.layoutConfigFile = layoutConfigFile;
+		this.setupConfigFile = setupConfigFile;
+		this.roomMap = roomMap;
+		tileStarts = new int[32];
+		tileEnds = new int[32];
+	}
+
+	/**
+	 * Creates a parser for one chunk of a file being parsed in parallel. It shares the file and rooms, but has its own tiles, its own report,
+	 * and saves room centers and labels for later.
+	 * @param parent - The parser for the whole file.
+	 */
+	private LayoutParser(LayoutParser parent) {
+		this(parent.layoutConfigFile, parent.setupConfigFile, parent.roomMap);
+		buffer = parent.buffer;
+		report = new ValidationReport();
+		roomCells = new ArrayList<BoardCell>();
+	}
+
+	/**
+	 * Sets whether files of at least MIN_CHUNK_BYTES * 2 bytes are parsed in parallel. The file is split into chunks of whole lines, the
+	 * chunks are parsed at the same time into one grid, and then room centers and labels are saved in the order they appear in the file.
+	 * @param parallel - True to parse large files in parallel.
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Sets a report to add problems to, rather than throwing the first one.
+	 * @param report - The report, or null to throw problems again.
+	 */
+	public void setReport(ValidationReport report) {
+		this.report = report;
+	}
+
+	/**
+	 * Reports a problem: throws it if there is no report, or adds it to the report.
+	 * @param type - What kind of problem it is.
+	 * @param i - The line the problem is on, or -1.
+	 * @param message - The message describing the problem.
+	 * @throws BadConfigFormatException - If there is no report.
+	 */
+	private void error(ProblemType type, int i, String message) throws BadConfigFormatException {
+		if(report == null) {
+			throw new BadConfigFormatException(message);
+		}
+		report.add(type, layoutConfigFile, i, message);
+	}
+
+	/**
+	 * Reads the layout file and creates a cell for every tile in it.
+	 * @return - The cells of the board, indexed [row][column]. If there is a report and the file is missing or empty, the board has no rows.
+	 * @throws BadConfigFormatException - If the file is missing, can't be read, or has a bad line, and there is no report.
+	 */
+	public BoardCell[][] parse() throws BadConfigFormatException {
+		try {
+			buffer = readFile(layoutConfigFile);
+		}
+		//If the file is not found, report it.
+		catch(FileNotFoundException | NoSuchFileException e) {
+			error(ProblemType.MISSING_FILE, -1, "File 'data/" + setupConfigFile + " not found. Please check the data directory.");
+			return new BoardCell[0][0];
+		}
+		//If the file can't be read, report it.
+		catch(IOException e) {
+			error(ProblemType.MISSING_FILE, -1, "File " + layoutConfigFile + " could not be read.");
+			return new BoardCell[0][0];
+		}
+		int limit = buffer.limit();
+		if(limit == 0) {
+			error(ProblemType.MISSING_FILE, -1, "File " + layoutConfigFile + " is empty.");
+			return new BoardCell[0][0];
+		}
+
+		//The width of the board is the number of tiles on the first line.
+		int width = splitLine(0, lineEnd(0));
+		if(parallel && limit >= MIN_CHUNK_BYTES * 2) {
+			return parseChunks(limit, width);
+		}
+
+		//The height of the board is the number of lines. Create the cells one line at a time.
+		int height = countLines(0, limit);
+		BoardCell[][] gameBoard = new BoardCell[height][width];
+		int lineStart = 0;
+		for(int i = 0; i < height; i++) {
+			int end = lineEnd(lineStart);
+			parseLine(gameBoard, i, lineStart, end);
+			lineStart = nextLine(end);
+		}
+		return gameBoard;
+	}
+
+	/**
+	 * Parses the file in parallel chunks of whole lines. The chunks first count their lines at the same time, so that each knows the row it
+	 * starts on, and then parse their lines at the same time into one grid. Each chunk collects its own problems and room cells, which are
+	 * then used in the order of the file.
+	 * @param limit - The size of the file.
+	 * @param width - The number of tiles on the first line.
+	 * @return - The cells of the board, indexed [row][column].
+	 * @throws BadConfigFormatException - If the file has a bad line, and there is no report. The problem on the earliest line is thrown.
+	 */
+	private BoardCell[][] parseChunks(int limit, int width) throws BadConfigFormatException {
+		LayoutChunk wholeFile = new LayoutChunk(0, limit);
+		ForkJoinPool.commonPool().invoke(wholeFile);
+		//Number the rows once to find the height of the board, then again to hand the chunks the grid.
+		BoardCell[][] gameBoard = new BoardCell[wholeFile.prepareParse(0, null)][width];
+		wholeFile.prepareParse(0, gameBoard);
+		ForkJoinPool.commonPool().invoke(wholeFile);
+
+		List<LayoutChunk> chunks = new ArrayList<LayoutChunk>();
+		wholeFile.addLeaves(chunks);
+		for(LayoutChunk chunk : chunks) {
+			for(ValidationReport.Problem problem : chunk.worker.report.getProblems()) {
+				//Without a report, each chunk stopped at its first problem, so the first problem found is the earliest in the file.
+				if(report == null) {
+					throw new BadConfigFormatException(problem.getMessage());
+				}
+				report.add(problem.getType(), problem.getFile(), problem.getLine(), problem.getMessage());
+			}
+		}
+		for(LayoutChunk chunk : chunks) {
+			for(BoardCell cell : chunk.worker.roomCells) {
+				Room room = roomMap.get(cell.getInitial());
+				if(cell.isRoomCenter()) {
+					room.setCenterCell(cell);
+				}
+				else {
+					room.setLabelCell(cell);
+				}
+			}
+		}
+		return gameBoard;
+	}
+
+	/**
+	 * A chunk of whole lines of the file, parsed as one fork/join task. Chunks of at least MIN_CHUNK_BYTES * 2 bytes are split in half at the
+	 * start of a line. The first time the chunks are invoked they split and count their lines, and the second time they parse them.
+	 */
+	private class LayoutChunk extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		//Where the chunk starts and ends in the buffer. Both are the start of a line, or the end of the file.
+		private int start, end;
+		//The two halves of the chunk, if it was split.
+		private LayoutChunk top, bottom;
+		//The row the chunk starts on and how many lines it has.
+		private int firstRow, lineCount;
+		//The grid to parse into, or null while counting lines.
+		private BoardCell[][] gameBoard;
+		//The parser used for this chunk's lines.
+		private LayoutParser worker;
+
+		public LayoutChunk(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			//The second time, reuse the halves from the first.
+			if(top != null) {
+				invokeAll(top, bottom);
+				return;
+			}
+			if(gameBoard == null) {
+				if(end - start >= MIN_CHUNK_BYTES * 2) {
+					int middle = nextLine(lineEnd((start + end) / 2));
+					if(middle < end) {
+						top = new LayoutChunk(start, middle);
+						bottom = new LayoutChunk(middle, end);
+						invokeAll(top, bottom);
+						return;
+					}
+				}
+				lineCount = countLines(start, end);
+				return;
+			}
+
+			worker = new LayoutParser(LayoutParser.this);
+			int lineStart = start;
+			try {
+				for(int i = firstRow; i < firstRow + lineCount; i++) {
+					int lineEnd = lineEnd(lineStart);
+					worker.parseLine(gameBoard, i, lineStart, lineEnd);
+					//Without a report, only the first problem matters.
+					if(report == null && !worker.report.isValid()) {
+						return;
+					}
+					lineStart = nextLine(lineEnd);
+				}
+			}
+			//The worker has a report, so it never throws.
+			catch(BadConfigFormatException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		/**
+		 * Gives each chunk the row it starts on, in the order of the file, and readies the chunks to be invoked again.
+		 * @param row - The row this chunk starts on.
+		 * @param gameBoard - The grid to parse into.
+		 * @return - The row after this chunk's last line.
+		 */
+		public int prepareParse(int row, BoardCell[][] gameBoard) {
+			reinitialize();
+			this.gameBoard = gameBoard;
+			if(top != null) {
+				return bottom.prepareParse(top.prepareParse(row, gameBoard), gameBoard);
+			}
+			firstRow = row;
+			return row + lineCount;
+		}
+
+		/**
+		 * Adds every chunk that wasn't split to a list, in the order of the file.
+		 * @param leaves - The list to add to.
+		 */
+		public void addLeaves(List<LayoutChunk> leaves) {
+			if(top == null) {
+				leaves.add(this);
+				return;
+			}
+			top.addLeaves(leaves);
+			bottom.addLeaves(leaves);
+		}
+	}
+
+	/**
+	 * Reads a whole file into a byte buffer. Large files are memory mapped, and small files are read into the heap.
+	 * @param fileName - The path of the file.
+	 * @return - A buffer holding the file's bytes, from 0 to its limit.
+	 * @throws IOException - If the file is missing or can't be read.
+	 */
+	public static ByteBuffer readFile(String fileName) throws IOException {
+		try(FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if(size >= MAP_THRESHOLD) {
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			}
+			ByteBuffer bytes = ByteBuffer.allocate((int) size);
+			while(bytes.hasRemaining() && channel.read(bytes) >= 0) {
+			}
+			bytes.flip();
+			return bytes;
+		}
+	}
+
+	/**
+	 * Creates the cells for one line of the layout file.
+	 * @param gameBoard - The grid to put the cells in.
+	 * @param i - The row the line describes.
+	 * @param start - Where the line starts in the buffer.
+	 * @param end - Where the line ends in the buffer, not counting the line break.
+	 * @throws BadConfigFormatException - If the line has the wrong number of tiles or a bad tile, and there is no report.
+	 */
+	private void parseLine(BoardCell[][] gameBoard, int i, int start, int end) throws BadConfigFormatException {
+		//Split the line into tiles and ensure there are the right amount of tiles specified, before looking at any of them.
+		int count = splitLine(start, end);
+		int width = gameBoard[i].length;
+		if(count != width) {
+			error(ProblemType.WRONG_COLUMN_COUNT, i, "Invalid line format on line " + i + " in " + layoutConfigFile + ", wrong number of tiles specified.");
+		}
+		for(int j = 0; j < Math.min(count, width); j++) {
+			gameBoard[i][j] = decodeTile(i, j, tileStarts[j], tileEnds[j]);
+		}
+		//Only reached with a report: fill in the tiles a short line is missing.
+		for(int j = count; j < width; j++) {
+			gameBoard[i][j] = new BoardCell(i, j);
+			gameBoard[i][j].setUnused();
+		}
+	}
+
+	/**
+	 * Finds where every tile on a line starts and ends. Like String.split(","), empty tiles at the end of the line are dropped, and a line with
+	 * no commas is a single tile.
+	 * @param start - Where the line starts in the buffer.
+	 * @param end - Where the line ends in the buffer, not counting the line break.
+	 * @return - The number of tiles on the line.
+	 */
+	private int splitLine(int start, int end) {
+		int count = 0;
+		int tileStart = start;
+		for(int k = start; k <= end; k++) {
+			if(k == end || buffer.get(k) == ',') {
+				if(count == tileStarts.length) {
+					tileStarts = Arrays.copyOf(tileStarts, count * 2);
+					tileEnds = Arrays.copyOf(tileEnds, count * 2);
+				}
+				tileStarts[count] = tileStart;
+				tileEnds[count] = k;
+				count++;
+				tileStart = k + 1;
+			}
+		}
+		//Drop empty tiles from the end, unless the whole line is empty.
+		while(count > 1 && tileStarts[count - 1] == tileEnds[count - 1]) {
+			count--;
+		}
+		return count;
+	}
+
+	/**
+	 * Creates the cell for one tile.
+	 * @param i - The row of the tile.
+	 * @param j - The column of the tile.
+	 * @param start - Where the tile starts in the buffer.
+	 * @param end - Where the tile ends in the buffer.
+	 * @return - The new board cell.
+	 * @throws BadConfigFormatException - If the tile is empty, or names a room or secret passage that doesn't exist, and there is no report.
+	 */
+	private BoardCell decodeTile(int i, int j, int start, int end) throws BadConfigFormatException {
+		BoardCell cell = new BoardCell(i, j);
+		int length = end - start;
+		if(length == 0) {
+			error(ProblemType.EMPTY_TILE, i, "Invalid line format on line " + i + " in " + layoutConfigFile + ", Empty tile specified.");
+			cell.setUnused();
+			return cell;
+		}
+		char initial = (char) (buffer.get(start) & 0xff);
+		switch(initial) {
+		case 'X':
+			cell.setUnused();
+			break;
+		case 'W':
+			cell.setWalkway();
+			//Check to see if it's a doorway, and set the door direction to the indicated direction.
+			if(length == 2) {
+				switch((char) (buffer.get(start + 1) & 0xff)) {
+				case '^':
+					cell.setDoor(DoorDirection.UP);
+					break;
+				case '<':
+					cell.setDoor(DoorDirection.LEFT);
+					break;
+				case '>':
+					cell.setDoor(DoorDirection.RIGHT);
+					break;
+				case 'v':
+					cell.setDoor(DoorDirection.DOWN);
+					break;
+				}
+			}
+			break;
+		default:
+			Room room = roomMap.get(initial);
+			//Make sure the room is specified in roomMap.
+			if(room == null) {
+				error(ProblemType.UNKNOWN_ROOM, i, "Invalid line format on line " + i + " in " + layoutConfigFile + ", Invalid room of type " + initial + " specified.");
+				cell.setUnused();
+				break;
+			}
+			//If the room tile has only one character, it's just an empty room tile.
+			if(length == 1) {
+				cell.setRoom(initial, false, false);
+				break;
+			}
+			char second = (char) (buffer.get(start + 1) & 0xff);
+			switch(second) {
+			//If it's a center cell, set it as such and save it in the room object.
+			case '*':
+				cell.setRoom(initial, false, true);
+				saveRoomCell(room, cell);
+				break;
+			//If it's a label cell, set it as such and save it in the room object.
+			case '#':
+				cell.setRoom(initial, true, false);
+				saveRoomCell(room, cell);
+				break;
+			//Otherwise it's a secret passage, which must lead to a room that exists.
+			default:
+				cell.setRoom(initial, false, false);
+				if(roomMap.get(second) == null) {
+					error(ProblemType.BAD_SECRET_PASSAGE, i, "Invalid line format on line " + i + " in " + layoutConfigFile + ", Secret passage to invalid room specified.");
+					break;
+				}
+				cell.setSecretPassage(second);
+				break;
+			}
+			break;
+		}
+		return cell;
+	}
+
+	/**
+	 * Saves a room's center or label cell in the room, or for a parallel chunk, saves it to be added to the room once every chunk is done.
+	 * @param room - The room the cell is in.
+	 * @param cell - A center or label cell.
+	 */
+	private void saveRoomCell(Room room, BoardCell cell) {
+		if(roomCells != null) {
+			roomCells.add(cell);
+		}
+		else if(cell.isRoomCenter()) {
+			room.setCenterCell(cell);
+		}
+		else {
+			room.setLabelCell(cell);
+		}
+	}
+
+	/**
+	 * Counts the lines in part of the buffer.
+	 * @param start - The start of the first line.
+	 * @param end - Where to stop, which is the start of a line or the end of the buffer.
+	 * @return - The number of lines.
+	 */
+	private int countLines(int start, int end) {
+		int count = 0;
+		for(int k = start; k < end; k = nextLine(lineEnd(k))) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the end of the line that starts at the position provided, not counting the line break.
+	 * @param start - Where the line starts in the buffer.
+	 * @return - The position of the line break, or the end of the buffer.
+	 */
+	private int lineEnd(int start) {
+		int k = start;
+		while(k < buffer.limit() && buffer.get(k) != '\n' && buffer.get(k) != '\r') {
+			k++;
+		}
+		return k;
+	}
+
+	/**
+	 * Finds the start of the line after a line break.
+	 * @param end - The position of the line break.
+	 * @return - Where the next line starts.
+	 */
+	private int nextLine(int end) {
+		if(end < buffer.limit() && buffer.get(end) == '\r') {
+			end++;
+		}
+		if(end < buffer.limit() && buffer.get(end) == '\n') {
+			end++;
+		}
+		return end;
+	}
+}
@@ -0,0 +1,190 @@
+package gameEngine;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A board graph that works out each walkway's neighbors the first time they are asked for, and keeps them from then on, so that on very large
+ * boards only the cells that are actually searched ever have adjacency lists. A walkway's neighbors only depend on the cells around it, but
+ * a room center is linked to every door into its room and every room with a secret passage into it, wherever they are on the board. So the
+ * door and secret passage cells are found with a single scan when the graph is created, and every room center's list is built from them
+ * right away. The lists come out the same as Board.setAdjLists() would make them, though not necessarily in the same order.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class LazyBoardGraph extends BoardGraph {
+	//The list given to cells that have no neighbors.
+	private static final int[] NO_NEIGHBORS = new int[0];
+	//The sides of a cell, in the order its neighbors are listed.
+	private static final DoorDirection[] SIDES = {DoorDirection.UP, DoorDirection.DOWN, DoorDirection.LEFT, DoorDirection.RIGHT};
+	//The board, as it was passed in, and its rooms.
+	private BoardCell[][] gameBoard;
+	private Map<Character, Room> roomMap;
+	//The neighbors of each cell that has been asked for, indexed by cell, or null for cells that haven't. Two threads asking for the same
+	//cell at once may both work out its neighbors, but only the first list saved is ever used.
+	private AtomicReferenceArray<int[]> lists;
+
+	/**
+	 * Creates the graph for the board provided, setting the neighbors of every room center. The cells' own adjacency lists are not read or set.
+	 * @param gameBoard - The game board.
+	 * @param roomMap - The board's rooms, keyed by initial, with their center cells set.
+	 */
+	public LazyBoardGraph(BoardCell[][] gameBoard, Map<Character, Room> roomMap) {
+		super(gameBoard);
+		this.gameBoard = gameBoard;
+		this.roomMap = new HashMap<Character, Room>(roomMap);
+		lists = new AtomicReferenceArray<int[]>(cells.length);
+
+		//Every room center's list is set right away.
+		for(Map.Entry<Integer, int[]> entry : findCenterLists(gameBoard, this.roomMap).entrySet()) {
+			lists.set(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Creates a graph over another copy of an old graph's board, starting with every list the old graph has worked out so far. The lists
+	 * are never changed once they are saved, so they are shared, but each graph fills in the rest of its own.
+	 * @param old - The graph to copy.
+	 * @param gameBoard - The new game board, the same size and layout as the old graph's.
+	 * @param roomMap - The new board's rooms, keyed by initial, with their center cells set.
+	 */
+	private LazyBoardGraph(LazyBoardGraph old, BoardCell[][] gameBoard, Map<Character, Room> roomMap) {
+		super(gameBoard);
+		this.gameBoard = gameBoard;
+		this.roomMap = new HashMap<Character, Room>(roomMap);
+		lists = new AtomicReferenceArray<int[]>(cells.length);
+		for(int id = 0; id < cells.length; id++) {
+			lists.set(id, old.lists.get(id));
+		}
+	}
+
+	/**
+	 * Returns a cell's neighbors, working them out if they haven't been asked for before.
+	 * @param id - The index of the cell.
+	 * @return - The indices of the cell's neighbors. Should not be modified.
+	 */
+	private int[] getList(int id) {
+		int[] list = lists.get(id);
+		if(list == null) {
+			//Room centers were set when the graph was created, so any other cell is either a walkway or has no neighbors.
+			if(cells[id].getInitial() == 'W' && !roomCenter[id]) {
+				list = findNeighbors(gameBoard, roomMap, id / width, id % width);
+			}
+			else {
+				list = NO_NEIGHBORS;
+			}
+			if(!lists.compareAndSet(id, null, list)) {
+				list = lists.get(id);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Finds the neighbors of a cell the same way Board.setAdjLists() does: a walkway is adjacent to the walkways around it, and a door is
+	 * also adjacent to the center of the room it faces. Other cells have no neighbors of their own.
+	 * @param gameBoard - The game board.
+	 * @param roomMap - The board's rooms, keyed by initial.
+	 * @param i - The row of the cell.
+	 * @param j - The column of the cell.
+	 * @return - The indices of the cell's neighbors, row * width + col.
+	 */
+	static int[] findNeighbors(BoardCell[][] gameBoard, Map<Character, Room> roomMap, int i, int j) {
+		int[] found = new int[4];
+		int count = findNeighbors(gameBoard, roomMap, i, j, found, 0);
+		return (count == 0) ? NO_NEIGHBORS : Arrays.copyOf(found, count);
+	}
+
+	/**
+	 * Finds the neighbors of a cell the same way findNeighbors() does, writing them into an array provided rather than a new one.
+	 * @param gameBoard - The game board.
+	 * @param roomMap - The board's rooms, keyed by initial.
+	 * @param i - The row of the cell.
+	 * @param j - The column of the cell.
+	 * @param found - The array to write the neighbors' indices to, or null to only count them.
+	 * @param start - Where in the array to write the first neighbor.
+	 * @return - The number of neighbors the cell has.
+	 */
+	static int findNeighbors(BoardCell[][] gameBoard, Map<Character, Room> roomMap, int i, int j, int[] found, int start) {
+		BoardCell current = gameBoard[i][j];
+		if(current.getInitial() != 'W') {
+			return 0;
+		}
+		int height = gameBoard.length, width = gameBoard[0].length;
+		int count = 0;
+		for(DoorDirection direction : SIDES) {
+			int row = i, col = j;
+			switch(direction) {
+			case UP:
+				row--;
+				break;
+			case DOWN:
+				row++;
+				break;
+			case LEFT:
+				col--;
+				break;
+			default:
+				col++;
+				break;
+			}
+			if(row < 0 || row >= height || col < 0 || col >= width) {
+				continue;
+			}
+			BoardCell nextTo = gameBoard[row][col];
+			int next = -1;
+			if(nextTo.getInitial() == 'W') {
+				next = row * width + col;
+			}
+			else if(current.getDoorDirection() == direction && nextTo.getInitial() != 'X') {
+				BoardCell center = roomMap.get(nextTo.getInitial()).getCenterCell();
+				if(center != null) {
+					next = center.getRow() * width + center.getCol();
+				}
+			}
+			if(next >= 0) {
+				if(found != null) {
+					found[start + count] = next;
+				}
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public int getDegree(int id) {
+		return getList(id).length;
+	}
+
+	@Override
+	public int getNeighbor(int id, int k) {
+		return getList(id)[k];
+	}
+
+	@Override
+	public BoardGraph copyFor(BoardCell[][] gameBoard, Map<Character, Room> roomMap) {
+		return new LazyBoardGraph(this, gameBoard, roomMap);
+	}
+
+	@Override
+	public boolean isLazy() {
+		return true;
+	}
+
+	/**
+	 * Returns the number of cells whose neighbors have been worked out or set so far, including room centers.
+	 * @return - The number of cells with saved adjacency lists.
+	 */
+	public int getListCount() {
+		int count = 0;
+		for(int id = 0; id < lists.length(); id++) {
+			if(lists.get(id) != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
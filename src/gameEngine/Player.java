@@ -3,7 +3,6 @@ package gameEngine;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.util.Set;
-import java.util.HashSet;
 
 /**
  * An abstract class to hold common methods and functions for HumanPlayer and ComputerPlayer objects.
@@ -14,19 +13,23 @@ import java.util.HashSet;
 public abstract class Player {
 	//The player's current position cell
 	private int rowPos, colPos;
-	//The player's name
+	//The player's name, and the id of the person card with that name in the deck being played, or -1 if there isn't one
 	private String name;
+	private int cardId;
 	//A color to signify the player
 	private Color color;
-	//The player's hand, and the maximum number of cards they can hold, 3
-	private Set<Card> hand;
+	//The player's hand, the number of cards it can hold, and the number a player holds unless the dealer sizes their hand, 3
+	private CardSet hand;
+	private int handCapacity;
 	public static final int MAX_CARDS = 3;
 	//A set of all cards seen by the players
-	private Set<Card> seen;
+	private CardSet seen;
 	//A set to hold the player's accusation
 	private Set<Card> accusation;
 	//The game board, for use with calculating moves and suggestions
 	private Board board = Board.getInstance();
+	//The player's own random number generator, split off from the game's when the game starts.
+	private GameRandom random;
 	//A boolean to indicate if the player can stay in the room they are in (set if they are dragged to a room via a suggestion)
 	private boolean canStayOnTile;
 	//A static int to calculate the tile offset for a player instance
@@ -43,9 +46,13 @@ public abstract class Player {
 	public Player(String playerName, Color playerColor, int row, int col) {
 		super();
 		name = playerName;
+		//Only look the card up, so creating players never adds cards to a deck. The board sets the id again when it loads its own deck.
+		cardId = CardRegistry.getActive().findId(playerName, CardType.PERSON);
 		color = playerColor;
-		hand = new HashSet<Card>();
-		seen = new HashSet<Card>();
+		hand = new CardSet();
+		handCapacity = MAX_CARDS;
+		seen = new CardSet();
+		random = new GameRandom();
 		rowPos = row;
 		colPos = col;
 		drawOffset = playerOffsetIndex * 5;
@@ -54,22 +61,24 @@ public abstract class Player {
 	
 	/**
 	 * Method for determining if the player has any card from a given suggestion in their hand, thus disproving the
-	 * suggestion. The program automatically returns the first match found, even if multiple matches are possible.
+	 * suggestion. The program automatically returns the match with the lowest id, even if multiple matches are possible.
 	 * @param suggestion - A set of cards representing the suggestion
 	 * @return - The card held by the player that appears in the suggestion, or null.
 	 */
 	public Card disproveSuggestion(Set<Card> suggestion) {
-		//Compare each card in the player's hand to each card in the suggestion
-		for(Card handCard : hand) {
-			for(Card sugCard : suggestion) {
-				//If they are equal, return the match.
-				if (handCard.equals(sugCard)) {
-					return sugCard;
-				}
-			}
-		}
+		int id = getDisprovingId(CardSet.of(suggestion));
 		//If no match is found, return null.
-		return null;
+		return (id < 0) ? null : hand.getRegistry().getCard(id);
+	}
+	
+	/**
+	 * Finds the card the player would show to disprove a suggestion without creating any objects, by ANDing the player's hand with the
+	 * suggestion and taking the lowest bit.
+	 * @param suggestion - The cards in the suggestion.
+	 * @return - The id of the card with the lowest id that is in both the hand and the suggestion, or -1 if there isn't one.
+	 */
+	public int getDisprovingId(CardSet suggestion) {
+		return hand.firstCommon(suggestion);
 	}
 	/**
 	 * Method to draw players on the game board
@@ -100,7 +109,7 @@ public abstract class Player {
 	 * @param card - The card to be added, assuming their hand is not already full.
 	 */
 	public void updateHand(Card card) {
-		if(!(hand.size() == MAX_CARDS)) {
+		if(hand.size() < handCapacity) {
 			hand.add(card);
 			seen.add(card);
 		}
@@ -108,18 +117,34 @@ public abstract class Player {
 	
 	/**
 	 * A method to get the player's hand
-	 * @return - The player's hand.
+	 * @return - The player's hand, as a bitmask over card ids.
 	 */
-	public Set<Card> getHand(){
+	public CardSet getHand(){
 		return hand;
 	}
 	
+	/**
+	 * Returns the number of cards the player's hand can hold.
+	 * @return - The hand's capacity, MAX_CARDS unless the dealer has sized it.
+	 */
+	public int getHandCapacity() {
+		return handCapacity;
+	}
+	
+	/**
+	 * Sets the number of cards the player's hand can hold. The dealer sizes each hand to fit the cards it deals.
+	 * @param capacity - The hand's capacity.
+	 */
+	public void setHandCapacity(int capacity) {
+		handCapacity = capacity;
+	}
+	
 	/**
 	 * A method to set the player's hand immediately. Used for testing.
 	 * @param hand - The hand to be given to the player.
 	 */
 	public void setHand(Set<Card> hand) {
-		this.hand = new HashSet<Card>(hand);
+		this.hand = new CardSet(hand);
 		seen.addAll(hand);
 	}
 	/**
@@ -130,6 +155,22 @@ public abstract class Player {
 		return name;
 	}
 	
+	/**
+	 * A method to get the id of the person card for this player, so a suggestion can be matched to the player without comparing names.
+	 * @return - The id of the person card with the player's name in the deck being played, or -1 if the deck has no such card.
+	 */
+	public int getCardId() {
+		return cardId;
+	}
+	
+	/**
+	 * Sets the id of the player's person card, when the board loads the deck the player belongs to.
+	 * @param id - The id of the person card with the player's name, or -1 if there isn't one.
+	 */
+	void setCardId(int id) {
+		cardId = id;
+	}
+	
 	/**
 	 * A method to get the color assigned to the player
 	 * @return - The player's color as a java.awt.Color
@@ -153,6 +194,22 @@ public abstract class Player {
 		return board.getCell(rowPos, colPos);
 	}
 	
+	/**
+	 * Method to get the row of the player's position, without looking up the cell.
+	 * @return - The row the player is on.
+	 */
+	public int getRow() {
+		return rowPos;
+	}
+	
+	/**
+	 * Method to get the column of the player's position, without looking up the cell.
+	 * @return - The column the player is on.
+	 */
+	public int getCol() {
+		return colPos;
+	}
+	
 	/**
 	 * Method to add a card to the seen set, shared by all players.
 	 * @param card - The card that has been seen.
@@ -163,9 +220,9 @@ public abstract class Player {
 	
 	/**
 	 * Method to get the set of all cards this particular player has seen.
-	 * @return - Set of cards representing the cards this player has seen.
+	 * @return - Set of cards representing the cards this player has seen, as a bitmask over card ids.
 	 */
-	public Set<Card> getSeen() {
+	public CardSet getSeen() {
 		return seen;
 	}
 	
@@ -176,6 +233,22 @@ public abstract class Player {
 	public Board getBoard() {
 		return board;
 	}
+	
+	/**
+	 * Returns the random number generator the player makes its choices with.
+	 * @return - The player's generator. A player that wasn't dealt into a game has one with a different seed every time.
+	 */
+	public GameRandom getRandom() {
+		return random;
+	}
+	
+	/**
+	 * Sets the random number generator the player makes its choices with. The board gives each player one split off from the game's.
+	 * @param random - The player's generator.
+	 */
+	public void setRandom(GameRandom random) {
+		this.random = random;
+	}
 	/**
 	 * Method to set the players accusation set when they are ready to make an accusation.
 	 * @param accusationSet - A set of cards representing a possible solution.
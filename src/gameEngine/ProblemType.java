@@ -0,0 +1,12 @@
+package gameEngine;
+
+/**
+ * Simple enumeration to declare the kind of problem ConfigValidator found in a setup or layout file.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ *
+ */
+public enum ProblemType {
+	MISSING_FILE, BAD_RECORD, UNKNOWN_ROOM, BAD_SECRET_PASSAGE, WRONG_COLUMN_COUNT, EMPTY_TILE, MISSING_CARD_TYPE, MISSING_CENTER, MISSING_LABEL,
+	DOOR_INTO_NON_ROOM;
+}
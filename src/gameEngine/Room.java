@@ -22,6 +22,17 @@ public class Room {
 		this.name = name;
 	}
 	
+	/**
+	 * A copy constructor to create a new room with the same name, center cell, and label cell as an old one.
+	 * @param room - The room to duplicate.
+	 */
+	public Room(Room room) {
+		super();
+		name = room.name;
+		centerCell = room.centerCell;
+		labelCell = room.labelCell;
+	}
+	
 	/**
 	 * Method to draw labels in all rooms on the proper label cell.
 	 * @param tileWidth - Width of each tile on the board (For calculating offset)
@@ -79,4 +90,12 @@ public class Room {
 		return labelCell;
 	}
 	
+	/**
+	 * Returns the room card with the room's name, so a player in the room can be matched to its card without comparing names.
+	 * @return - The room card for this room in the deck being played, or null if the deck has no card for it.
+	 */
+	public Card getCard() {
+		return CardRegistry.getActive().findCard(name, CardType.ROOM);
+	}
+	
 }
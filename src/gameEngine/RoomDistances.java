@@ -0,0 +1,182 @@
+package gameEngine;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds, for every room on the board, the number of steps from every cell to the room's center. Each room's distances are found once with a
+ * breadth first search outward from its center and stored as one int per cell, so planners can rank cells by how close they are to a room
+ * without searching the board themselves. The distances only depend on the layout, so they can be shared by every game on the same board.
+ * Paths are not allowed to pass through other rooms, since entering a room ends a player's movement. On a lazy graph the distances are only
+ * found the first time one is asked for, since finding them works out every cell's neighbors.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class RoomDistances {
+	//The value stored for cells that can't reach a room.
+	public static final int UNREACHABLE = -1;
+	//The board's adjacency graph.
+	private BoardGraph graph;
+	//The center of each room that has one, keyed by the room's initial.
+	private Map<Character, BoardCell> centers;
+	//The distances to each room's center, keyed by the room's initial and indexed by cell, or null until they are calculated.
+	private Map<Character, int[]> distances;
+
+	/**
+	 * Calculates the distances from every cell to every room that has a center cell, or saves the rooms' centers to calculate them from later
+	 * if the graph is lazy.
+	 * @param graph - The board's adjacency graph.
+	 * @param roomMap - The board's rooms, keyed by initial.
+	 */
+	public RoomDistances(BoardGraph graph, Map<Character, Room> roomMap) {
+		super();
+		this.graph = graph;
+		centers = new HashMap<Character, BoardCell>();
+		for(Map.Entry<Character, Room> entry : roomMap.entrySet()) {
+			if(entry.getValue().getCenterCell() != null) {
+				centers.put(entry.getKey(), entry.getValue().getCenterCell());
+			}
+		}
+		if(!graph.isLazy()) {
+			calculate();
+		}
+	}
+
+	/**
+	 * Creates the distances for another copy of the same layout, such as a new game's board. Distances that have already been calculated are
+	 * never changed, so they are shared, and cells are looked up in the new graph. Distances that haven't been calculated yet are calculated
+	 * separately for the new graph the first time one is asked for.
+	 * @param other - The distances to copy.
+	 * @param graph - A graph with the same neighbors as the other distances' graph.
+	 */
+	public RoomDistances(RoomDistances other, BoardGraph graph) {
+		super();
+		this.graph = graph;
+		centers = new HashMap<Character, BoardCell>();
+		for(Map.Entry<Character, BoardCell> entry : other.centers.entrySet()) {
+			BoardCell center = entry.getValue();
+			centers.put(entry.getKey(), graph.getCell(graph.getIndex(center.getRow(), center.getCol())));
+		}
+		distances = other.distances;
+	}
+
+	/**
+	 * Calculates the distances from every cell to every room's center. Only called once, and like TargetTable.fillEntries() it must only be
+	 * called from one thread at a time.
+	 */
+	private void calculate() {
+		Map<Character, int[]> found = new HashMap<Character, int[]>();
+		int cellCount = graph.getCellCount();
+
+		//Adjacency isn't guaranteed to be symmetric (a secret passage may only go one way), so the search runs over the reversed graph,
+		//which finds the distance from each cell to the center rather than from the center to each cell.
+		int[] reverseOffsets = new int[cellCount + 1];
+		for(int id = 0; id < cellCount; id++) {
+			for(int k = 0; k < graph.getDegree(id); k++) {
+				reverseOffsets[graph.getNeighbor(id, k) + 1]++;
+			}
+		}
+		for(int id = 0; id < cellCount; id++) {
+			reverseOffsets[id + 1] += reverseOffsets[id];
+		}
+		int[] reverseNeighbors = new int[reverseOffsets[cellCount]];
+		int[] fill = new int[cellCount];
+		for(int id = 0; id < cellCount; id++) {
+			for(int k = 0; k < graph.getDegree(id); k++) {
+				int to = graph.getNeighbor(id, k);
+				reverseNeighbors[reverseOffsets[to] + fill[to]] = id;
+				fill[to]++;
+			}
+		}
+
+		//Search outward from each room's center.
+		int[] queue = new int[cellCount];
+		for(Map.Entry<Character, BoardCell> entry : centers.entrySet()) {
+			BoardCell center = entry.getValue();
+			if(graph.getIndex(center) < 0) {
+				continue;
+			}
+			int[] dist = new int[cellCount];
+			for(int id = 0; id < cellCount; id++) {
+				dist[id] = UNREACHABLE;
+			}
+			int source = graph.getIndex(center);
+			dist[source] = 0;
+			int head = 0, tail = 0;
+			queue[tail++] = source;
+			while(head < tail) {
+				int cell = queue[head++];
+				//Other rooms can be reached, but not passed through.
+				if(cell != source && graph.isRoomCenter(cell)) {
+					continue;
+				}
+				for(int k = reverseOffsets[cell]; k < reverseOffsets[cell + 1]; k++) {
+					int next = reverseNeighbors[k];
+					if(dist[next] == UNREACHABLE) {
+						//A path can't be longer than the number of cells, so the distance always fits.
+						dist[next] = dist[cell] + 1;
+						queue[tail++] = next;
+					}
+				}
+			}
+			found.put(entry.getKey(), dist);
+		}
+		distances = found;
+	}
+
+	/**
+	 * Returns the number of steps from a cell to the center of a room.
+	 * @param id - The index of the cell.
+	 * @param initial - The initial of the room.
+	 * @return - The number of steps, or UNREACHABLE if the room can't be reached or has no center.
+	 */
+	public int getDistance(int id, char initial) {
+		int[] dist = getDistances(initial);
+		if(dist == null) {
+			return UNREACHABLE;
+		}
+		return dist[id];
+	}
+
+	/**
+	 * Returns the number of steps from a cell to the center of a room.
+	 * @param cell - A board cell.
+	 * @param initial - The initial of the room.
+	 * @return - The number of steps, or UNREACHABLE if the room can't be reached, has no center, or the cell is not on this board.
+	 */
+	public int getDistance(BoardCell cell, char initial) {
+		int id = graph.getIndex(cell);
+		if(id < 0) {
+			return UNREACHABLE;
+		}
+		return getDistance(id, initial);
+	}
+
+	/**
+	 * Returns the fewest turns it could take to reach a room from a cell, assuming the highest roll every turn. Since entering a room
+	 * ends movement, any roll at least as long as the distance is enough.
+	 * @param cell - A board cell.
+	 * @param initial - The initial of the room.
+	 * @param maxRoll - The highest roll possible in one turn.
+	 * @return - The number of turns, 0 if the cell is the room's center, or UNREACHABLE.
+	 */
+	public int getTurns(BoardCell cell, char initial, int maxRoll) {
+		int dist = getDistance(cell, initial);
+		if(dist == UNREACHABLE) {
+			return UNREACHABLE;
+		}
+		return (dist + maxRoll - 1) / maxRoll;
+	}
+
+	/**
+	 * Returns the distances from every cell to a room, for planners that want to scan them directly.
+	 * @param initial - The initial of the room.
+	 * @return - The distance from each cell, indexed by cell, or null if the room has no center. Should not be modified.
+	 */
+	public int[] getDistances(char initial) {
+		if(distances == null) {
+			calculate();
+		}
+		return distances.get(initial);
+	}
+}
@@ -0,0 +1,396 @@
+package gameEngine;
+
+import java.awt.Color;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a setup file into rooms, cards, and players in a single pass, without regular expressions. The file is decoded once into a char
+ * buffer, and each line is split into fields by recording where every field starts and ends. Fields are compared and converted straight from
+ * the buffer, so the only strings created are the names of rooms, weapons, and players.
+ * The format is the one the board has always used: one record per line, fields separated by commas, leading whitespace in a field ignored,
+ * lines starting with '/' are comments, and the first blank line ends the file. Records are:
+ *   Room, name, initial
+ *   Space, name, initial
+ *   Weapon, name
+ *   Player, name, red, green, blue, row, column
+ *   NPC, name, red, green, blue, row, column
+ * Normally the first bad line throws a BadConfigFormatException. If a ValidationReport is set, every bad line is added to the report
+ * instead, and the rest of the file is still read.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class SetupParser {
+	//The name of the file being parsed, used in error messages.
+	private String setupConfigFile;
+	//The decoded contents of the file, and how many characters there are.
+	private char[] chars;
+	private int length;
+	//Where each field in the current line starts and ends (exclusive) in the buffer, and how many fields there are.
+	private int[] fieldStarts, fieldEnds;
+	private int fieldCount;
+	//The last human player declared.
+	private Player humanPlayer;
+	//The registry of the cards declared, created for this parse unless one is provided, so their ids start from 0.
+	private CardRegistry registry;
+	//The initials of every room declared with a Room record, in order. Spaces are not included.
+	private List<Character> roomInitials;
+	//Where problems are added when validating, or null if the first problem should be thrown. lineFailed is set when a problem is added
+	//partway through a line, so the rest of the line is skipped.
+	private ValidationReport report;
+	private boolean lineFailed;
+
+	/**
+	 * Creates a parser for the setup file provided.
+	 * @param setupConfigFile - The path of the setup file.
+	 */
+	public SetupParser(String setupConfigFile) {
+		this(setupConfigFile, new CardRegistry());
+	}
+
+	/**
+	 * Creates a parser for the setup file provided that adds the cards it declares to a registry owned by the caller.
+	 * @param setupConfigFile - The path of the setup file.
+	 * @param registry - The registry to add the cards to, usually empty.
+	 */
+	public SetupParser(String setupConfigFile, CardRegistry registry) {
+		super();
+		this.setupConfigFile = setupConfigFile;
+		fieldStarts = new int[8];
+		fieldEnds = new int[8];
+		roomInitials = new ArrayList<Character>();
+		this.registry = registry;
+	}
+
+	/**
+	 * Sets a report to add problems to, rather than throwing the first one.
+	 * @param report - The report, or null to throw problems again.
+	 */
+	public void setReport(ValidationReport report) {
+		this.report = report;
+	}
+
+	/**
+	 * Reports a problem: throws it if there is no report, or adds it to the report and marks the current line as failed.
+	 * @param type - What kind of problem it is.
+	 * @param i - The line the problem is on, or -1.
+	 * @param message - The message describing the problem.
+	 * @throws BadConfigFormatException - If there is no report.
+	 */
+	private void error(ProblemType type, int i, String message) throws BadConfigFormatException {
+		if(report == null) {
+			throw new BadConfigFormatException(message);
+		}
+		report.add(type, setupConfigFile, i, message);
+		lineFailed = true;
+	}
+
+	/**
+	 * Reads the setup file, adding every room and space to the room map, every card to the deck, and every player to the list of players.
+	 * @param roomMap - The map to put rooms and spaces in, keyed by initial.
+	 * @param deck - The list to add cards to.
+	 * @param players - The list to add players to.
+	 * @throws BadConfigFormatException - If the file is missing or has a bad line, and there is no report.
+	 */
+	public void parse(Map<Character, Room> roomMap, List<Card> deck, List<Player> players) throws BadConfigFormatException {
+		try {
+			CharBuffer decoded = StandardCharsets.UTF_8.decode(LayoutParser.readFile(setupConfigFile));
+			chars = decoded.array();
+			length = decoded.limit();
+		}
+		//If the file is not found, report it.
+		catch(FileNotFoundException | NoSuchFileException e) {
+			error(ProblemType.MISSING_FILE, -1, "File 'data/" + setupConfigFile + " not found. Please check the data directory.");
+			return;
+		}
+		catch(IOException e) {
+			error(ProblemType.MISSING_FILE, -1, "File " + setupConfigFile + " could not be read.");
+			return;
+		}
+
+		int lineStart = 0;
+		//Count lines, including comments, so errors can say where they are.
+		for(int i = 0; lineStart < length; i++) {
+			int end = lineStart;
+			while(end < length && chars[end] != '\n' && chars[end] != '\r') {
+				end++;
+			}
+			//A blank line ends the file.
+			if(end == lineStart) {
+				break;
+			}
+			//Lines starting with a slash are comments.
+			if(chars[lineStart] != '/') {
+				lineFailed = false;
+				parseLine(i, lineStart, end, roomMap, deck, players);
+			}
+			//Move past the line break, which may be \n, \r, or \r\n.
+			if(end < length && chars[end] == '\r') {
+				end++;
+			}
+			if(end < length && chars[end] == '\n') {
+				end++;
+			}
+			lineStart = end;
+		}
+	}
+
+	/**
+	 * Creates the room, card, or player declared on one line.
+	 * @param i - The line number, counting from 0.
+	 * @param start - Where the line starts in the buffer.
+	 * @param end - Where the line ends in the buffer, not counting the line break.
+	 * @param roomMap - The map to put rooms and spaces in.
+	 * @param deck - The list to add cards to.
+	 * @param players - The list to add players to.
+	 * @throws BadConfigFormatException - If the line has the wrong number of fields, an unknown type, or a bad number, and there is no report.
+	 */
+	private void parseLine(int i, int start, int end, Map<Character, Room> roomMap, List<Card> deck, List<Player> players)
+			throws BadConfigFormatException {
+		splitLine(start, end);
+		if(fieldIs(0, "Room")) {
+			//Create a new room and put it in the map with the key being it's initial, then add a card for it to the deck.
+			if(!checkFieldCount(i, 3, "a Room object")) {
+				return;
+			}
+			String name = readName(1);
+			char initial = readInitial(i, 2);
+			if(lineFailed) {
+				return;
+			}
+			roomMap.put(initial, new Room(name));
+			roomInitials.add(initial);
+			deck.add(registry.getCard(name, CardType.ROOM));
+		}
+		else if(fieldIs(0, "Space")) {
+			//Spaces go in the room map, but don't have cards.
+			if(!checkFieldCount(i, 3, "a Space object")) {
+				return;
+			}
+			String name = readName(1);
+			char initial = readInitial(i, 2);
+			if(lineFailed) {
+				return;
+			}
+			roomMap.put(initial, new Room(name));
+		}
+		else if(fieldIs(0, "Weapon")) {
+			if(!checkFieldCount(i, 2, "a Weapon object")) {
+				return;
+			}
+			deck.add(registry.getCard(readName(1), CardType.WEAPON));
+		}
+		else if(fieldIs(0, "Player") || fieldIs(0, "NPC")) {
+			boolean human = fieldIs(0, "Player");
+			if(!checkFieldCount(i, 7, human ? "a Player object" : "an NPC object")) {
+				return;
+			}
+			String name = readName(1);
+			//Read in all the RGB values and the starting position.
+			int redVal = readInt(i, 2);
+			int greenVal = readInt(i, 3);
+			int blueVal = readInt(i, 4);
+			int playerRow = readInt(i, 5);
+			int playerCol = readInt(i, 6);
+			if(lineFailed) {
+				return;
+			}
+			if(redVal > 255 || greenVal > 255 || blueVal > 255 || redVal < 0 || greenVal < 0 || blueVal < 0) {
+				error(ProblemType.BAD_RECORD, i, "Invalid format in " + setupConfigFile + " on line " + i + ": Color value out of range.");
+				return;
+			}
+			Color color = new Color(redVal, greenVal, blueVal);
+			Player player;
+			if(human) {
+				humanPlayer = new HumanPlayer(name, color, playerRow, playerCol);
+				player = humanPlayer;
+			}
+			else {
+				player = new ComputerPlayer(name, color, playerRow, playerCol);
+			}
+			players.add(player);
+			//Add a card for the player to the deck, and give the player its id in this file's registry rather than the active one.
+			Card card = registry.getCard(name, CardType.PERSON);
+			deck.add(card);
+			player.setCardId(card.getId());
+		}
+		else {
+			error(ProblemType.BAD_RECORD, i, "Attempted to specify tile of unknown type: " + fieldString(0) + " in " + setupConfigFile + " On line " + i);
+		}
+	}
+
+	/**
+	 * Finds where every field on a line starts and ends. Like String.split(","), empty fields at the end of the line are dropped.
+	 * @param start - Where the line starts in the buffer.
+	 * @param end - Where the line ends in the buffer.
+	 */
+	private void splitLine(int start, int end) {
+		fieldCount = 0;
+		int fieldStart = start;
+		for(int k = start; k <= end; k++) {
+			if(k == end || chars[k] == ',') {
+				if(fieldCount == fieldStarts.length) {
+					fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+					fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+				}
+				fieldStarts[fieldCount] = fieldStart;
+				fieldEnds[fieldCount] = k;
+				fieldCount++;
+				fieldStart = k + 1;
+			}
+		}
+		while(fieldCount > 1 && fieldStarts[fieldCount - 1] == fieldEnds[fieldCount - 1]) {
+			fieldCount--;
+		}
+	}
+
+	/**
+	 * Reports a problem if the line doesn't have the number of fields its record needs.
+	 * @param i - The line number.
+	 * @param expected - The number of fields the record needs.
+	 * @param record - The kind of record, for the error message.
+	 * @return - True if the number of fields is right.
+	 * @throws BadConfigFormatException - If the number of fields is wrong and there is no report.
+	 */
+	private boolean checkFieldCount(int i, int expected, String record) throws BadConfigFormatException {
+		if(fieldCount != expected) {
+			error(ProblemType.BAD_RECORD, i, "Invalid format in " + setupConfigFile + " on line " + i + ": Line contains the wrong number of entries for " + record + ".");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if a field is exactly the text provided.
+	 * @param field - Which field on the line.
+	 * @param text - The text to compare to.
+	 * @return - True if the field matches.
+	 */
+	private boolean fieldIs(int field, String text) {
+		int start = fieldStarts[field];
+		if(fieldEnds[field] - start != text.length()) {
+			return false;
+		}
+		for(int k = 0; k < text.length(); k++) {
+			if(chars[start + k] != text.charAt(k)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns where a field starts once its leading whitespace is skipped.
+	 * @param field - Which field on the line.
+	 * @return - The position of the first character that isn't whitespace, or the end of the field.
+	 */
+	private int skipWhitespace(int field) {
+		int k = fieldStarts[field];
+		while(k < fieldEnds[field] && Character.isWhitespace(chars[k])) {
+			k++;
+		}
+		return k;
+	}
+
+	/**
+	 * Returns a field as a name, with its leading whitespace removed.
+	 * @param field - Which field on the line.
+	 * @return - The name.
+	 */
+	private String readName(int field) {
+		int start = skipWhitespace(field);
+		return new String(chars, start, fieldEnds[field] - start);
+	}
+
+	/**
+	 * Returns a field as it appears in the file.
+	 * @param field - Which field on the line.
+	 * @return - The field's text.
+	 */
+	private String fieldString(int field) {
+		return new String(chars, fieldStarts[field], fieldEnds[field] - fieldStarts[field]);
+	}
+
+	/**
+	 * Returns the first character of a field after its leading whitespace, used as a room's initial.
+	 * @param i - The line number.
+	 * @param field - Which field on the line.
+	 * @return - The initial, or 0 if the field is blank and there is a report.
+	 * @throws BadConfigFormatException - If the field is blank and there is no report.
+	 */
+	private char readInitial(int i, int field) throws BadConfigFormatException {
+		int start = skipWhitespace(field);
+		if(start == fieldEnds[field]) {
+			error(ProblemType.BAD_RECORD, i, "Invalid format in " + setupConfigFile + " on line " + i + ": Missing initial.");
+			return 0;
+		}
+		return chars[start];
+	}
+
+	/**
+	 * Reads a field as a whole number. Whitespace is allowed around the number, and it may have a sign.
+	 * @param i - The line number.
+	 * @param field - Which field on the line.
+	 * @return - The number, or 0 if the field isn't a number and there is a report.
+	 * @throws BadConfigFormatException - If the field isn't a number, or doesn't fit in an int, and there is no report.
+	 */
+	private int readInt(int i, int field) throws BadConfigFormatException {
+		int k = skipWhitespace(field);
+		int end = fieldEnds[field];
+		boolean negative = false;
+		if(k < end && (chars[k] == '-' || chars[k] == '+')) {
+			negative = chars[k] == '-';
+			k++;
+		}
+		int digits = 0;
+		long value = 0;
+		while(k < end && chars[k] >= '0' && chars[k] <= '9') {
+			value = value * 10 + (chars[k] - '0');
+			digits++;
+			k++;
+			if(value > (long) Integer.MAX_VALUE + 1) {
+				break;
+			}
+		}
+		while(k < end && Character.isWhitespace(chars[k])) {
+			k++;
+		}
+		value = negative ? -value : value;
+		if(digits == 0 || k != end || value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+			error(ProblemType.BAD_RECORD, i, "Invalid format in " + setupConfigFile + " on line " + i + ": '" + fieldString(field).trim() + "' is not a valid number.");
+			return 0;
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Returns the registry of the cards declared in the file, which holds only those cards, with ids in the order they were declared.
+	 * @return - The cards' registry.
+	 */
+	public CardRegistry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * Returns the last human player declared in the file.
+	 * @return - The human player, or null if there was none.
+	 */
+	public Player getHumanPlayer() {
+		return humanPlayer;
+	}
+
+	/**
+	 * Returns the initial of every room declared with a Room record. Spaces, like walkways, are not included.
+	 * @return - The initials, in the order they were declared.
+	 */
+	public List<Character> getRoomInitials() {
+		return roomInitials;
+	}
+}
@@ -0,0 +1,143 @@
+package gameEngine;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Packs a solution, or an accusation or suggestion, into a single long: one card id for each card type, each in its own 21 bit slot, in
+ * CardType order. A slot holds the card's id plus one, so an empty slot means the set has no card of that type. Two keys with every type
+ * filled in are the same solution exactly when the longs are equal, so a key can be used directly as the key of a table over the
+ * solution space, and an accusation can be checked against the solution with one comparison. Sets with two different cards of the same
+ * type have no key, and are encoded as CONFLICT.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public final class SolutionKey {
+	//The width of each type's slot, and a mask of one slot's bits. Card ids must be less than SLOT_MASK, and larger ids are refused.
+	public static final int SLOT_BITS = 21;
+	public static final long SLOT_MASK = (1L << SLOT_BITS) - 1;
+	//The key of a set with no cards, and of a set with two different cards of the same type.
+	public static final long EMPTY = 0, CONFLICT = -1;
+	//Every card type, in slot order.
+	private static final CardType[] TYPES = CardType.values();
+
+	/**
+	 * Keys are only made and read through the static methods.
+	 */
+	private SolutionKey() {
+	}
+
+	/**
+	 * Packs a set of cards into a key. Cards of the same type and id are only counted once.
+	 * @param cards - The cards, with at most one of each type.
+	 * @return - The key, or CONFLICT if two different cards have the same type.
+	 * @throws IllegalArgumentException - If a card's id is too large for a slot.
+	 */
+	public static long of(Collection<Card> cards) {
+		long key = EMPTY;
+		for(Card card : cards) {
+			int shift = card.getType().ordinal() * SLOT_BITS;
+			long slot = (key >>> shift) & SLOT_MASK;
+			long value = slotValue(card.getId());
+			if(slot != 0 && slot != value) {
+				return CONFLICT;
+			}
+			key |= value << shift;
+		}
+		return key;
+	}
+
+	/**
+	 * Packs a full solution into a key.
+	 * @param personId - The id of the person card.
+	 * @param roomId - The id of the room card.
+	 * @param weaponId - The id of the weapon card.
+	 * @return - The key.
+	 * @throws IllegalArgumentException - If an id is too large for a slot.
+	 */
+	public static long of(int personId, int roomId, int weaponId) {
+		return with(with(with(EMPTY, CardType.PERSON, personId), CardType.ROOM, roomId), CardType.WEAPON, weaponId);
+	}
+
+	/**
+	 * Returns a key with one type's slot set to a card id, replacing any card of that type already in it.
+	 * @param key - The key to change.
+	 * @param type - The type of the card.
+	 * @param id - The id of the card.
+	 * @return - The new key.
+	 * @throws IllegalArgumentException - If the id is too large for a slot.
+	 */
+	public static long with(long key, CardType type, int id) {
+		int shift = type.ordinal() * SLOT_BITS;
+		return (key & ~(SLOT_MASK << shift)) | (slotValue(id) << shift);
+	}
+
+	/**
+	 * Returns what a slot holds for a card id, checking that it fits. An id that didn't fit would spill into the next type's slot, and the
+	 * key would silently name a different solution.
+	 * @param id - The card's id.
+	 * @return - The id plus one.
+	 * @throws IllegalArgumentException - If the id is negative, or too large for a slot.
+	 */
+	private static long slotValue(int id) {
+		if(id < 0 || id + 1L > SLOT_MASK) {
+			throw new IllegalArgumentException("Card id " + id + " doesn't fit in a " + SLOT_BITS + " bit slot of a solution key.");
+		}
+		return id + 1L;
+	}
+
+	/**
+	 * Returns the id of the card of a type in a key.
+	 * @param key - The key, which must not be CONFLICT.
+	 * @param type - The type of card.
+	 * @return - The card's id, or -1 if the key has no card of that type.
+	 */
+	public static int getId(long key, CardType type) {
+		return (int) ((key >>> (type.ordinal() * SLOT_BITS)) & SLOT_MASK) - 1;
+	}
+
+	/**
+	 * Returns true if two keys don't disagree on any type: every type is either missing from one of them or has the same card in both.
+	 * This is how an accusation is checked against the solution, so an accusation that leaves out a type is not wrong about it. A key
+	 * that is CONFLICT never matches.
+	 * @param a - The first key.
+	 * @param b - The second key.
+	 * @return - True if the keys agree on every type they both have.
+	 */
+	public static boolean matches(long a, long b) {
+		//Keys with every type filled in only match when they are equal.
+		if(a == b) {
+			return a != CONFLICT;
+		}
+		if(a == CONFLICT || b == CONFLICT) {
+			return false;
+		}
+		//Otherwise only compare the slots both keys have filled in.
+		long both = 0;
+		for(int t = 0; t < TYPES.length; t++) {
+			long slot = SLOT_MASK << (t * SLOT_BITS);
+			if((a & slot) != 0 && (b & slot) != 0) {
+				both |= slot;
+			}
+		}
+		return ((a ^ b) & both) == 0;
+	}
+
+	/**
+	 * Unpacks a key into a new set of cards, one for each type it has.
+	 * @param key - The key, which must not be CONFLICT.
+	 * @param registry - The registry the key's ids are from.
+	 * @return - A new set holding the key's cards.
+	 */
+	public static Set<Card> toCards(long key, CardRegistry registry) {
+		Set<Card> cards = new HashSet<Card>();
+		for(CardType type : TYPES) {
+			int id = getId(key, type);
+			if(id >= 0) {
+				cards.add(registry.getCard(id));
+			}
+		}
+		return cards;
+	}
+}
@@ -0,0 +1,133 @@
+package gameEngine;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A reusable list of targets owned by the caller of Board.calcTargets(BoardCell, int, TargetBuffer). Targets are stored as cell indices in
+ * an int array that only grows, and the buffer carries its own scratch space for the search, so filling it again allocates nothing and
+ * several buffers can be filled at the same time from different threads.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class TargetBuffer {
+	//The indices of the targets, in increasing order, and how many there are.
+	private int[] cells;
+	private int count;
+	//The targets as a bitset, for quick membership checks.
+	private BitSet found;
+	//This buffer's own target search, created the first time the buffer is used with a board.
+	private TargetFinder finder;
+
+	/**
+	 * Creates an empty target buffer.
+	 */
+	public TargetBuffer() {
+		super();
+		cells = new int[16];
+		found = new BitSet();
+	}
+
+	/**
+	 * Returns the target search this buffer should use for a board, creating a new one if the board's graph has changed since the buffer
+	 * was last used.
+	 * @param boardFinder - The board's own target finder.
+	 * @return - A finder over the same graph, with scratch space owned by this buffer.
+	 */
+	TargetFinder getFinder(TargetFinder boardFinder) {
+		if(finder == null || finder.getGraph() != boardFinder.getGraph()) {
+			finder = new TargetFinder(boardFinder);
+		}
+		return finder;
+	}
+
+	/**
+	 * Returns the bitset the search writes into. Call fillFromBits() once it holds the targets.
+	 * @return - The buffer's bitset.
+	 */
+	BitSet getBits() {
+		return found;
+	}
+
+	/**
+	 * Replaces the contents of the buffer with the targets in the bitset provided.
+	 * @param targets - A bitset of cell indices. May be the buffer's own bitset.
+	 * @return - The number of targets.
+	 */
+	int fillFromBits(BitSet targets) {
+		if(targets != found) {
+			found.clear();
+			found.or(targets);
+		}
+		count = 0;
+		for(int id = found.nextSetBit(0); id >= 0; id = found.nextSetBit(id + 1)) {
+			if(count == cells.length) {
+				cells = Arrays.copyOf(cells, cells.length * 2);
+			}
+			cells[count] = id;
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Replaces the contents of the buffer with the targets in the array provided.
+	 * @param targets - The sorted indices of every target.
+	 * @return - The number of targets.
+	 */
+	int fill(int[] targets) {
+		found.clear();
+		if(cells.length < targets.length) {
+			cells = Arrays.copyOf(cells, Math.max(targets.length, cells.length * 2));
+		}
+		for(int k = 0; k < targets.length; k++) {
+			cells[k] = targets[k];
+			found.set(targets[k]);
+		}
+		count = targets.length;
+		return count;
+	}
+
+	/**
+	 * Empties the buffer.
+	 */
+	public void clear() {
+		found.clear();
+		count = 0;
+	}
+
+	/**
+	 * Returns the number of targets in the buffer.
+	 * @return - The number of targets.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the index of one of the targets. Targets are in increasing order of index.
+	 * @param i - Which target to return, from 0 to size() - 1.
+	 * @return - The index of the target cell.
+	 */
+	public int getCellIndex(int i) {
+		return cells[i];
+	}
+
+	/**
+	 * Returns one of the targets as a board cell.
+	 * @param i - Which target to return, from 0 to size() - 1.
+	 * @return - The target cell.
+	 */
+	public BoardCell getCell(int i) {
+		return finder.getCell(cells[i]);
+	}
+
+	/**
+	 * Returns whether the cell with the index provided is one of the targets.
+	 * @param id - The index of a cell.
+	 * @return - True if the cell is a target.
+	 */
+	public boolean contains(int id) {
+		return id >= 0 && found.get(id);
+	}
+}
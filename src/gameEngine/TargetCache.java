@@ -0,0 +1,239 @@
+package gameEngine;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Set;
+
+/**
+ * Remembers the targets calculated for each (starting cell, roll) pair under the current occupancy of the board. Every entry records the
+ * walkway cells its search looked at, and each of those cells keeps a list of the entries that depend on it. When a cell becomes occupied
+ * or unoccupied, only the entries that looked at that cell are thrown out, so a player moving around the board leaves most of the cache
+ * intact.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class TargetCache {
+	//The board's adjacency graph, used to size the cache and to turn indices back into cells.
+	private BoardGraph graph;
+	//The longest roll the cache will hold.
+	private int maxRoll;
+	//The cached targets for every starting cell and roll, indexed [cell][roll]. A starting cell's row is created the first time it is used.
+	private Entry[][] entries;
+	//For every cell, the keys (start * (maxRoll + 1) + roll) of the entries that looked at it, and how many keys are in use.
+	private int[][] dependents;
+	private int[] dependentCount;
+	//The cells that are currently occupied.
+	private BitSet occupied;
+	//Counters for how the cache is doing.
+	private long hits, misses, invalidations;
+
+	/**
+	 * A single cached result: the targets found, and the cells whose occupancy the result depends on. Both are sorted cell indices.
+	 */
+	private static class Entry {
+		private int[] targets;
+		private int[] footprint;
+	}
+
+	/**
+	 * Creates an empty cache for the graph provided, reading the current occupancy of every cell.
+	 * @param graph - The board's adjacency graph.
+	 * @param maxRoll - The longest roll that will be cached.
+	 */
+	public TargetCache(BoardGraph graph, int maxRoll) {
+		super();
+		this.graph = graph;
+		this.maxRoll = maxRoll;
+		entries = new Entry[graph.getCellCount()][];
+		dependents = new int[graph.getCellCount()][];
+		dependentCount = new int[graph.getCellCount()];
+		occupied = new BitSet(graph.getCellCount());
+		for(int id = 0; id < graph.getCellCount(); id++) {
+			if(graph.getCell(id).getOccupied()) {
+				occupied.set(id);
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the cache can hold results for the roll provided.
+	 * @param length - The length of the roll.
+	 * @return - True if the roll is between 1 and the cache's longest roll.
+	 */
+	public boolean accepts(int length) {
+		return length >= 1 && length <= maxRoll;
+	}
+
+	/**
+	 * Adds the cached targets for a starting cell and roll to the set provided, if they are cached.
+	 * @param start - The index of the starting cell.
+	 * @param length - The length of the roll.
+	 * @param result - The set to add the targets to.
+	 * @return - True if the targets were cached, false if they need to be calculated.
+	 */
+	public boolean getTargets(int start, int length, Set<BoardCell> result) {
+		Entry entry = (entries[start] == null) ? null : entries[start][length];
+		if(entry == null) {
+			misses++;
+			return false;
+		}
+		hits++;
+		for(int id : entry.targets) {
+			result.add(graph.getCell(id));
+		}
+		return true;
+	}
+
+	/**
+	 * Stores the targets for a starting cell and roll.
+	 * @param start - The index of the starting cell.
+	 * @param length - The length of the roll.
+	 * @param found - The targets that were found.
+	 * @param footprint - Every walkway cell the search looked at, and so every cell whose occupancy could change the result.
+	 */
+	public void put(int start, int length, BitSet found, BitSet footprint) {
+		put(start, length, found.stream().toArray(), footprint.stream().toArray());
+	}
+
+	/**
+	 * Stores the targets for a starting cell and roll. The arrays are kept as they are, not copied.
+	 * @param start - The index of the starting cell.
+	 * @param length - The length of the roll.
+	 * @param found - The sorted indices of the targets that were found.
+	 * @param footprint - The sorted indices of every walkway cell the search looked at.
+	 */
+	public void put(int start, int length, int[] found, int[] footprint) {
+		if(entries[start] == null) {
+			entries[start] = new Entry[maxRoll + 1];
+		}
+		Entry entry = new Entry();
+		entry.targets = found;
+		entry.footprint = footprint;
+		entries[start][length] = entry;
+
+		//Let every cell in the footprint know that this entry depends on it.
+		int key = start * (maxRoll + 1) + length;
+		for(int id : entry.footprint) {
+			addDependent(id, key);
+		}
+	}
+
+	/**
+	 * Records that the entry with the key provided depends on a cell. If the cell's list is full, entries that have since been thrown out
+	 * are removed from it before it is grown.
+	 * @param id - The index of the cell.
+	 * @param key - The key of the entry.
+	 */
+	private void addDependent(int id, int key) {
+		if(dependents[id] == null) {
+			dependents[id] = new int[4];
+		}
+		else if(dependentCount[id] == dependents[id].length) {
+			compactDependents(id);
+			if(dependentCount[id] * 2 > dependents[id].length) {
+				dependents[id] = Arrays.copyOf(dependents[id], dependents[id].length * 2);
+			}
+		}
+		dependents[id][dependentCount[id]] = key;
+		dependentCount[id]++;
+	}
+
+	/**
+	 * Removes keys from a cell's list of dependents that no longer refer to a live entry that looked at the cell.
+	 * @param id - The index of the cell.
+	 */
+	private void compactDependents(int id) {
+		int[] keys = dependents[id];
+		int kept = 0;
+		for(int k = 0; k < dependentCount[id]; k++) {
+			Entry entry = getEntry(keys[k]);
+			if(entry != null && Arrays.binarySearch(entry.footprint, id) >= 0) {
+				//Skip keys that are already kept, so each live entry appears once.
+				boolean duplicate = false;
+				for(int j = 0; j < kept; j++) {
+					if(keys[j] == keys[k]) {
+						duplicate = true;
+						break;
+					}
+				}
+				if(!duplicate) {
+					keys[kept] = keys[k];
+					kept++;
+				}
+			}
+		}
+		dependentCount[id] = kept;
+	}
+
+	/**
+	 * Returns the entry for the key provided, or null if there is none.
+	 * @param key - The key of the entry, start * (maxRoll + 1) + roll.
+	 * @return - The entry, or null.
+	 */
+	private Entry getEntry(int key) {
+		Entry[] row = entries[key / (maxRoll + 1)];
+		return (row == null) ? null : row[key % (maxRoll + 1)];
+	}
+
+	/**
+	 * Updates the occupancy of a cell. If it changed, every entry that looked at the cell is thrown out.
+	 * @param id - The index of the cell.
+	 * @param isOccupied - Whether the cell is now occupied.
+	 */
+	public void setOccupied(int id, boolean isOccupied) {
+		if(occupied.get(id) == isOccupied) {
+			return;
+		}
+		occupied.set(id, isOccupied);
+		//Throw out every entry that depends on this cell.
+		for(int k = 0; k < dependentCount[id]; k++) {
+			int key = dependents[id][k];
+			Entry[] row = entries[key / (maxRoll + 1)];
+			if(row != null && row[key % (maxRoll + 1)] != null) {
+				row[key % (maxRoll + 1)] = null;
+				invalidations++;
+			}
+		}
+		dependentCount[id] = 0;
+	}
+
+	/**
+	 * Returns the set of cells the cache believes are occupied.
+	 * @return - A bitset of the indices of every occupied cell. Should not be modified.
+	 */
+	public BitSet getOccupied() {
+		return occupied;
+	}
+
+	/**
+	 * Throws out every cached entry.
+	 */
+	public void clear() {
+		Arrays.fill(entries, null);
+		Arrays.fill(dependentCount, 0);
+	}
+
+	/**
+	 * Returns the number of lookups that found a cached result.
+	 * @return - The number of cache hits.
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups that had to calculate the result.
+	 * @return - The number of cache misses.
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of entries thrown out because a cell they depend on changed occupancy.
+	 * @return - The number of invalidated entries.
+	 */
+	public long getInvalidations() {
+		return invalidations;
+	}
+}
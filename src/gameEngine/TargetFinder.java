@@ -0,0 +1,431 @@
+package gameEngine;
+
+import java.util.BitSet;
+import java.util.Set;
+
+/**
+ * An iterative version of the target search. Every cell on the board is given a dense index (row * width + col), visited cells are tracked
+ * in a bitset, and the path being walked is kept in two small arrays instead of on the call stack. Targets are written into a bitset
+ * provided by the caller, so once the finder has been created a search allocates nothing.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class TargetFinder {
+	//The board's adjacency graph.
+	private BoardGraph graph;
+	//Scratch space for the search. pathCells holds the cell at each step of the current path, and pathNext holds which neighbor of
+	//that cell will be tried next.
+	private BitSet visited;
+	private int[] pathCells, pathNext;
+	//Scratch space for the reachability checks made while searching long rolls. bfsCells doubles as the queue and the list of cells to
+	//reset afterwards.
+	private BitSet bfsSeen;
+	private int[] bfsCells, bfsDist;
+	//True if the walkways can be split into two colors with every step changing color, like a checkerboard. When they can, a walkway can
+	//only be reached in an odd or an even number of steps, never both.
+	private boolean walkwaysBipartite;
+
+	/**
+	 * Creates a target finder that searches the graph provided.
+	 * @param graph - The board's adjacency graph.
+	 */
+	public TargetFinder(BoardGraph graph) {
+		super();
+		this.graph = graph;
+		visited = new BitSet(graph.getCellCount());
+		pathCells = new int[TargetTable.MAX_ROLL + 1];
+		pathNext = new int[TargetTable.MAX_ROLL + 1];
+		//A lazy graph only ever links walkways to the walkways next to them, which always color like a checkerboard, and checking would
+		//work out every cell's neighbors.
+		walkwaysBipartite = graph.isLazy() || checkBipartite();
+	}
+
+	/**
+	 * Creates a target finder that searches the same graph as another finder, but has its own scratch space, so the two can search at the
+	 * same time on different threads.
+	 * @param other - The finder to copy.
+	 */
+	public TargetFinder(TargetFinder other) {
+		this(other, other.graph);
+	}
+
+	/**
+	 * Creates a target finder for another copy of the same layout as another finder, such as a new game's graph, without checking the
+	 * walkways again. The new finder has its own scratch space.
+	 * @param other - The finder to copy.
+	 * @param graph - A graph with the same neighbors as the other finder's.
+	 */
+	public TargetFinder(TargetFinder other, BoardGraph graph) {
+		super();
+		this.graph = graph;
+		visited = new BitSet(graph.getCellCount());
+		pathCells = new int[TargetTable.MAX_ROLL + 1];
+		pathNext = new int[TargetTable.MAX_ROLL + 1];
+		walkwaysBipartite = other.walkwaysBipartite;
+	}
+
+	/**
+	 * Determines if the walkways of the board can be colored like a checkerboard, so that every step between two walkways changes color.
+	 * Paths can't pass through rooms, so this is what lets the long roll search rule out cells by parity.
+	 * @return - True if the walkway graph is bipartite.
+	 */
+	private boolean checkBipartite() {
+		int[] color = new int[graph.getCellCount()];
+		int[] queue = new int[graph.getCellCount()];
+		for(int source = 0; source < graph.getCellCount(); source++) {
+			if(color[source] != 0 || graph.isRoomCenter(source)) {
+				continue;
+			}
+			//Color each connected group of walkways with a breadth first search.
+			color[source] = 1;
+			int head = 0, tail = 0;
+			queue[tail++] = source;
+			while(head < tail) {
+				int cell = queue[head++];
+				for(int k = 0; k < graph.getDegree(cell); k++) {
+					int next = graph.getNeighbor(cell, k);
+					if(graph.isRoomCenter(next)) {
+						continue;
+					}
+					if(color[next] == 0) {
+						color[next] = -color[cell];
+						queue[tail++] = next;
+					}
+					else if(color[next] == color[cell]) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Calculates every cell a player could move to from the starting cell with the roll provided. Follows the same rules as the original
+	 * recursive search: a roll can't visit a cell twice, entering a room ends the roll, and occupied walkway cells can't be moved through.
+	 * @param start - The index of the starting cell.
+	 * @param length - The length of the roll.
+	 * @param useOccupancy - True if occupied cells should block movement, false to search as if the board were empty.
+	 * @param result - The bitset to write the targets into. It is cleared first.
+	 * @param footprint - If not null, every walkway cell the search looked at is added to it.
+	 * @return - The number of targets found.
+	 */
+	public int findTargets(int start, int length, boolean useOccupancy, BitSet result, BitSet footprint) {
+		//Rolls longer than a single die have far too many paths to walk one by one, so they are searched with pruning.
+		if(length > TargetTable.MAX_ROLL) {
+			return findLongTargets(start, length, useOccupancy, result, footprint);
+		}
+		result.clear();
+		//A roll of 0 can only land on the starting cell.
+		if(length <= 0) {
+			if(length == 0 && (!useOccupancy || !graph.getCell(start).getOccupied() || graph.isRoomCenter(start))) {
+				result.set(start);
+			}
+			return result.cardinality();
+		}
+		//Make sure the path arrays can hold a path of this length.
+		if(pathCells.length <= length) {
+			pathCells = new int[length + 1];
+			pathNext = new int[length + 1];
+		}
+
+		//Start the path at the starting cell.
+		visited.clear();
+		visited.set(start);
+		int depth = 0;
+		pathCells[0] = start;
+		pathNext[0] = 0;
+		while(depth >= 0) {
+			int cell = pathCells[depth];
+			//If every neighbor of the current cell has been tried, step back.
+			if(pathNext[depth] == graph.getDegree(cell)) {
+				visited.clear(cell);
+				depth--;
+				continue;
+			}
+			//Try the next neighbor.
+			int next = graph.getNeighbor(cell, pathNext[depth]);
+			pathNext[depth]++;
+			if(visited.get(next)) {
+				continue;
+			}
+			if(!graph.isRoomCenter(next)) {
+				if(footprint != null) {
+					footprint.set(next);
+				}
+				//Occupied walkways can't be moved through or landed on.
+				if(useOccupancy && graph.getCell(next).getOccupied()) {
+					continue;
+				}
+			}
+			//If the roll ends here, or the cell is a room, it's a target.
+			if(depth + 1 == length || graph.isRoomCenter(next)) {
+				result.set(next);
+			}
+			//Otherwise, continue the path from this cell.
+			else {
+				depth++;
+				pathCells[depth] = next;
+				pathNext[depth] = 0;
+				visited.set(next);
+			}
+		}
+		return result.cardinality();
+	}
+
+	/**
+	 * Calculates targets for long rolls, such as house rules using two or three dice. The rules and results are the same as findTargets(),
+	 * but before the search continues down a path, it checks whether anything new could still be found at the end of it. A breadth first
+	 * search from the cell, avoiding the cells already on the path, finds every cell that could still be reached. Rooms within range, and
+	 * walkways exactly the remaining number of steps away, are real targets and are added right away. The path is only followed further if
+	 * some walkway within range, of the right parity, is not yet a target. On open walkways the targets fill in quickly, so almost every
+	 * path is cut off after a few steps.
+	 * Results can't simply be remembered for each (cell, steps remaining) pair, since what can be reached from a cell depends on which
+	 * cells the path has already used.
+	 * @param start - The index of the starting cell.
+	 * @param length - The length of the roll.
+	 * @param useOccupancy - True if occupied cells should block movement, false to search as if the board were empty.
+	 * @param result - The bitset to write the targets into. It is cleared first.
+	 * @param footprint - If not null, every walkway cell the search looked at is added to it.
+	 * @return - The number of targets found.
+	 */
+	private int findLongTargets(int start, int length, boolean useOccupancy, BitSet result, BitSet footprint) {
+		result.clear();
+		//The scratch space for the reachability checks is only needed for long rolls, so it is created the first time one is searched.
+		if(bfsCells == null) {
+			bfsSeen = new BitSet(graph.getCellCount());
+			bfsCells = new int[graph.getCellCount()];
+			bfsDist = new int[graph.getCellCount()];
+		}
+		if(pathCells.length <= length) {
+			pathCells = new int[length + 1];
+			pathNext = new int[length + 1];
+		}
+
+		visited.clear();
+		visited.set(start);
+		int depth = 0;
+		pathCells[0] = start;
+		pathNext[0] = 0;
+		while(depth >= 0) {
+			int cell = pathCells[depth];
+			if(pathNext[depth] == graph.getDegree(cell)) {
+				visited.clear(cell);
+				depth--;
+				continue;
+			}
+			int next = graph.getNeighbor(cell, pathNext[depth]);
+			pathNext[depth]++;
+			if(visited.get(next)) {
+				continue;
+			}
+			if(!graph.isRoomCenter(next)) {
+				if(footprint != null) {
+					footprint.set(next);
+				}
+				if(useOccupancy && graph.getCell(next).getOccupied()) {
+					continue;
+				}
+			}
+			if(depth + 1 == length || graph.isRoomCenter(next)) {
+				result.set(next);
+			}
+			//Only continue down the path if it could still lead somewhere new.
+			else if(canFindNewTargets(next, length - depth - 1, useOccupancy, result, footprint)) {
+				depth++;
+				pathCells[depth] = next;
+				pathNext[depth] = 0;
+				visited.set(next);
+			}
+		}
+		return result.cardinality();
+	}
+
+	/**
+	 * Searches outward from a cell on the current path to see whether continuing the path could find a target that hasn't been found yet.
+	 * Any target that is certain to be reachable is added to the result along the way.
+	 * @param source - The index of the cell the path would continue from.
+	 * @param remaining - The number of steps left in the roll once the path reaches source.
+	 * @param useOccupancy - True if occupied cells should block movement.
+	 * @param result - The targets found so far, which may be added to.
+	 * @param footprint - If not null, every walkway cell looked at is added to it.
+	 * @return - True if a walkway that is not yet a target could still be the end of the path.
+	 */
+	private boolean canFindNewTargets(int source, int remaining, boolean useOccupancy, BitSet result, BitSet footprint) {
+		boolean open = false;
+		int head = 0, tail = 0;
+		bfsCells[tail++] = source;
+		bfsDist[source] = 0;
+		bfsSeen.set(source);
+		while(head < tail) {
+			int cell = bfsCells[head++];
+			int dist = bfsDist[cell] + 1;
+			if(dist > remaining || graph.isRoomCenter(cell)) {
+				continue;
+			}
+			for(int k = 0; k < graph.getDegree(cell); k++) {
+				int next = graph.getNeighbor(cell, k);
+				if(visited.get(next) || bfsSeen.get(next)) {
+					continue;
+				}
+				bfsSeen.set(next);
+				bfsCells[tail++] = next;
+				bfsDist[next] = dist;
+				//A room within range can always be entered by the shortest path to it.
+				if(graph.isRoomCenter(next)) {
+					result.set(next);
+					continue;
+				}
+				if(footprint != null) {
+					footprint.set(next);
+				}
+				//Occupied walkways can't be passed through. They stay in the queue only so they are reset afterwards.
+				if(useOccupancy && graph.getCell(next).getOccupied()) {
+					bfsDist[next] = remaining;
+					continue;
+				}
+				//A walkway exactly the remaining number of steps away is the end of its shortest path.
+				if(dist == remaining) {
+					result.set(next);
+				}
+				//Any other walkway in range could be the end of a longer path, if the parity allows it.
+				else if(!result.get(next) && (!walkwaysBipartite || (remaining - dist) % 2 == 0)) {
+					open = true;
+				}
+			}
+		}
+		//Reset the cells the search touched.
+		for(int k = 0; k < tail; k++) {
+			bfsSeen.clear(bfsCells[k]);
+		}
+		return open;
+	}
+
+	/**
+	 * Calculates the targets for every roll from 1 to maxLength in a single walk of the board. Every path the search for the longest roll
+	 * walks passes through the targets of the shorter rolls, so each cell reached at step d is a target for a roll of d, and each room
+	 * reached at step d is a target for every roll of d or more.
+	 * @param start - The index of the starting cell.
+	 * @param maxLength - The longest roll to calculate.
+	 * @param useOccupancy - True if occupied cells should block movement, false to search as if the board were empty.
+	 * @param results - Bitsets to write the targets into, where results[r] receives the targets for a roll of r. Must hold at least
+	 * maxLength + 1 bitsets. Each one used is cleared first.
+	 */
+	public void findAllTargets(int start, int maxLength, boolean useOccupancy, BitSet[] results) {
+		for(int roll = 1; roll <= maxLength; roll++) {
+			results[roll].clear();
+		}
+		if(maxLength < 1) {
+			return;
+		}
+		//Make sure the path arrays can hold a path of this length.
+		if(pathCells.length <= maxLength) {
+			pathCells = new int[maxLength + 1];
+			pathNext = new int[maxLength + 1];
+		}
+
+		//Walk every path up to the longest roll, the same way findTargets() does.
+		visited.clear();
+		visited.set(start);
+		int depth = 0;
+		pathCells[0] = start;
+		pathNext[0] = 0;
+		while(depth >= 0) {
+			int cell = pathCells[depth];
+			if(pathNext[depth] == graph.getDegree(cell)) {
+				visited.clear(cell);
+				depth--;
+				continue;
+			}
+			int next = graph.getNeighbor(cell, pathNext[depth]);
+			pathNext[depth]++;
+			if(visited.get(next) || (useOccupancy && !graph.isRoomCenter(next) && graph.getCell(next).getOccupied())) {
+				continue;
+			}
+			//Any cell reached at this step is a target for a roll of this length.
+			results[depth + 1].set(next);
+			//Rooms end the path, as does reaching the longest roll.
+			if(depth + 1 < maxLength && !graph.isRoomCenter(next)) {
+				depth++;
+				pathCells[depth] = next;
+				pathNext[depth] = 0;
+				visited.set(next);
+			}
+		}
+
+		//A room entered early is still a target for every longer roll.
+		for(int roll = 2; roll <= maxLength; roll++) {
+			BitSet shorter = results[roll - 1];
+			for(int id = shorter.nextSetBit(0); id >= 0; id = shorter.nextSetBit(id + 1)) {
+				if(graph.isRoomCenter(id)) {
+					results[roll].set(id);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the cell for every index set in the bitset to the set provided.
+	 * @param found - A bitset of cell indices.
+	 * @param result - The set of board cells to add to.
+	 */
+	public void addCells(BitSet found, Set<BoardCell> result) {
+		for(int id = found.nextSetBit(0); id >= 0; id = found.nextSetBit(id + 1)) {
+			result.add(graph.getCell(id));
+		}
+	}
+
+	/**
+	 * Adds the cells with the indices in the array provided to a set of board cells.
+	 * @param found - An array of cell indices.
+	 * @param result - The set to add the cells to.
+	 */
+	public void addCells(int[] found, Set<BoardCell> result) {
+		for(int id : found) {
+			result.add(graph.getCell(id));
+		}
+	}
+
+	/**
+	 * Returns the graph this finder searches.
+	 * @return - The board's adjacency graph.
+	 */
+	public BoardGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the index of a cell, or -1 if the cell is not part of the board this finder was built for.
+	 * @param cell - A board cell
+	 * @return - The index of the cell, row * width + col, or -1.
+	 */
+	public int getIndex(BoardCell cell) {
+		return graph.getIndex(cell);
+	}
+
+	/**
+	 * Returns the cell at the index provided.
+	 * @param id - The index of the cell.
+	 * @return - The board cell at that index.
+	 */
+	public BoardCell getCell(int id) {
+		return graph.getCell(id);
+	}
+
+	/**
+	 * Returns the number of cells on the board.
+	 * @return - The number of cells, or the largest index + 1.
+	 */
+	public int getCellCount() {
+		return graph.getCellCount();
+	}
+
+	/**
+	 * Returns whether the cell at the index provided is a room center.
+	 * @param id - The index of the cell.
+	 * @return - True if the cell is a room center.
+	 */
+	public boolean isRoomCenter(int id) {
+		return graph.isRoomCenter(id);
+	}
+}
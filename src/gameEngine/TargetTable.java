@@ -0,0 +1,168 @@
+package gameEngine;
+
+import java.util.BitSet;
+
+/**
+ * Holds the targets for every navigable cell on the board and every roll from 1 to MAX_ROLL. The table is calculated once per loaded layout
+ * as if no players were on the board. Each entry also remembers the footprint of the search that produced it (every walkway cell the search
+ * stepped onto), so the board can cheaply tell whether the current occupancy could change the result before using it. Targets and
+ * footprints are kept as sorted arrays of cell indices, so an entry's size doesn't grow with the size of the board. Boards with more than
+ * EAGER_CELL_LIMIT cells, and boards with a lazy graph, fill in a cell's entries the first time the cell is started from, rather than all at
+ * once, so a lazy graph only ever works out the neighbors of cells that are actually searched.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class TargetTable {
+	//The largest roll stored in the table, one die.
+	public static final int MAX_ROLL = 6;
+	//The largest board whose table is filled in as soon as it is created.
+	public static final int EAGER_CELL_LIMIT = 10000;
+	//The finder used to fill in the table.
+	private TargetFinder finder;
+	//The targets and footprint for every cell and roll, indexed [cell][roll]. Cells that haven't been filled in, or that can't be started
+	//from, hold null.
+	private int[][][] targets;
+	private int[][][] footprints;
+	//Whether entries are filled in as cells are started from.
+	private boolean lazy;
+	//Scratch space used while filling in entries.
+	private BitSet foundBits, footprintBits;
+
+	/**
+	 * Creates the table using the target finder provided, filling it in right away unless the board is very large or its graph is lazy.
+	 * @param finder - A target finder for the board the table is being built for.
+	 */
+	public TargetTable(TargetFinder finder) {
+		this(finder, null, null);
+	}
+
+	/**
+	 * Creates the table for a board whose layout has changed in a few places, keeping every entry of the old table that can't have changed.
+	 * A path can only use a changed link by stepping onto a cell whose neighbors changed, so a starting cell keeps its entries if neither it
+	 * nor any cell in its targets or footprints is one of those cells. The rest are filled in as usual.
+	 * @param finder - A target finder for the changed board, which must be the same size as before.
+	 * @param old - The table for the board before the change, or null to fill in every entry.
+	 * @param affected - Whether each cell's neighbors changed, indexed by cell, or null if old is null.
+	 */
+	public TargetTable(TargetFinder finder, TargetTable old, boolean[] affected) {
+		super();
+		this.finder = finder;
+		int cellCount = finder.getCellCount();
+		targets = new int[cellCount][][];
+		footprints = new int[cellCount][][];
+		foundBits = new BitSet();
+		footprintBits = new BitSet();
+
+		if(old != null) {
+			for(int id = 0; id < cellCount; id++) {
+				if(old.targets[id] != null && !affected[id] && !touches(old.targets[id], affected) && !touches(old.footprints[id], affected)) {
+					targets[id] = old.targets[id];
+					footprints[id] = old.footprints[id];
+				}
+			}
+		}
+		lazy = cellCount > EAGER_CELL_LIMIT || finder.getGraph().isLazy();
+		if(!lazy) {
+			for(int id = 0; id < cellCount; id++) {
+				fillEntries(id);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the table fills in its entries as cells are started from, rather than having filled them all in when it was created.
+	 * A table that isn't lazy is never changed once it is created, so it can be shared by games on the same layout.
+	 * @return - True if the board has more than EAGER_CELL_LIMIT cells, or its graph is lazy.
+	 */
+	public boolean isLazy() {
+		return lazy;
+	}
+
+	/**
+	 * Returns true if any of a starting cell's entries includes an affected cell.
+	 * @param entries - The cell's targets or footprints for every roll.
+	 * @param affected - Whether each cell is affected, indexed by cell.
+	 * @return - True if an affected cell appears in any entry.
+	 */
+	private static boolean touches(int[][] entries, boolean[] affected) {
+		for(int[] entry : entries) {
+			if(entry == null) {
+				continue;
+			}
+			for(int id : entry) {
+				if(affected[id]) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Calculates a starting cell's entries for every roll, if they haven't been calculated yet. Only walkways and room centers can be started
+	 * from, so other cells are left empty. Uses the table's own finder, so this must only be called from one thread at a time.
+	 * @param id - The index of the starting cell.
+	 */
+	public void fillEntries(int id) {
+		BoardCell cell = finder.getCell(id);
+		if(targets[id] != null || !(cell.getInitial() == 'W' || cell.isRoomCenter())) {
+			return;
+		}
+		int[][] cellTargets = new int[MAX_ROLL + 1][];
+		int[][] cellFootprints = new int[MAX_ROLL + 1][];
+		for(int roll = 1; roll <= MAX_ROLL; roll++) {
+			footprintBits.clear();
+			finder.findTargets(id, roll, false, foundBits, footprintBits);
+			cellTargets[roll] = foundBits.stream().toArray();
+			cellFootprints[roll] = footprintBits.stream().toArray();
+		}
+		footprints[id] = cellFootprints;
+		targets[id] = cellTargets;
+	}
+
+	/**
+	 * Returns true if the table holds an entry for the cell and roll provided.
+	 * @param id - The index of the starting cell.
+	 * @param length - The length of the roll.
+	 * @return - True if the table can be used for this cell and roll.
+	 */
+	public boolean hasEntry(int id, int length) {
+		return length >= 1 && length <= MAX_ROLL && targets[id] != null;
+	}
+
+	/**
+	 * Returns true if any cell in the footprint of the entry is occupied, meaning the entry can't be used as-is.
+	 * @param id - The index of the starting cell.
+	 * @param length - The length of the roll.
+	 * @param occupied - A bitset of the indices of every occupied cell.
+	 * @return - True if another player could block one of the paths recorded for the entry.
+	 */
+	public boolean isBlocked(int id, int length, BitSet occupied) {
+		for(int cell : footprints[id][length]) {
+			if(occupied.get(cell)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the targets of an entry.
+	 * @param id - The index of the starting cell.
+	 * @param length - The length of the roll.
+	 * @return - The sorted indices of every target. Should not be modified.
+	 */
+	public int[] getTargets(int id, int length) {
+		return targets[id][length];
+	}
+
+	/**
+	 * Returns the footprint of an entry, every walkway cell its search stepped onto.
+	 * @param id - The index of the starting cell.
+	 * @param length - The length of the roll.
+	 * @return - The sorted indices of every cell in the footprint. Should not be modified.
+	 */
+	public int[] getFootprint(int id, int length) {
+		return footprints[id][length];
+	}
+}
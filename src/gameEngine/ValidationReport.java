@@ -0,0 +1,146 @@
+package gameEngine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Every problem found while validating a setup and layout file, in the order it was found. Each problem records its type, the file it is in,
+ * the line it is on, and the same message the board would have thrown for it.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+public class ValidationReport {
+	//The problems found, in the order they were found.
+	private List<Problem> problems;
+
+	/**
+	 * A single problem in a configuration file.
+	 */
+	public static class Problem {
+		private ProblemType type;
+		private String file;
+		private int line;
+		private String message;
+
+		/**
+		 * Creates a problem.
+		 * @param type - What kind of problem it is.
+		 * @param file - The file the problem is in.
+		 * @param line - The line the problem is on, counting from 0, or -1 if it isn't on a particular line.
+		 * @param message - A message describing the problem.
+		 */
+		public Problem(ProblemType type, String file, int line, String message) {
+			super();
+			this.type = type;
+			this.file = file;
+			this.line = line;
+			this.message = message;
+		}
+
+		/**
+		 * Returns what kind of problem this is.
+		 * @return - The problem's type.
+		 */
+		public ProblemType getType() {
+			return type;
+		}
+
+		/**
+		 * Returns the file the problem is in.
+		 * @return - The path of the file.
+		 */
+		public String getFile() {
+			return file;
+		}
+
+		/**
+		 * Returns the line the problem is on.
+		 * @return - The line, counting from 0, or -1 if it isn't on a particular line.
+		 */
+		public int getLine() {
+			return line;
+		}
+
+		/**
+		 * Returns the message describing the problem.
+		 * @return - The message.
+		 */
+		public String getMessage() {
+			return message;
+		}
+
+		@Override
+		public String toString() {
+			return type + ": " + message;
+		}
+	}
+
+	/**
+	 * Creates an empty report.
+	 */
+	public ValidationReport() {
+		super();
+		problems = new ArrayList<Problem>();
+	}
+
+	/**
+	 * Adds a problem to the report.
+	 * @param type - What kind of problem it is.
+	 * @param file - The file the problem is in.
+	 * @param line - The line the problem is on, counting from 0, or -1 if it isn't on a particular line.
+	 * @param message - A message describing the problem.
+	 */
+	public void add(ProblemType type, String file, int line, String message) {
+		problems.add(new Problem(type, file, line, message));
+	}
+
+	/**
+	 * Returns true if no problems were found.
+	 * @return - True if the files are valid.
+	 */
+	public boolean isValid() {
+		return problems.isEmpty();
+	}
+
+	/**
+	 * Returns every problem found.
+	 * @return - A read-only list of the problems, in the order they were found.
+	 */
+	public List<Problem> getProblems() {
+		return Collections.unmodifiableList(problems);
+	}
+
+	/**
+	 * Returns the problems of one type.
+	 * @param type - The kind of problem.
+	 * @return - The problems of that type, in the order they were found.
+	 */
+	public List<Problem> getProblems(ProblemType type) {
+		List<Problem> matching = new ArrayList<Problem>();
+		for(Problem problem : problems) {
+			if(problem.getType() == type) {
+				matching.add(problem);
+			}
+		}
+		return matching;
+	}
+
+	/**
+	 * Lists every problem, one per line.
+	 */
+	@Override
+	public String toString() {
+		if(problems.isEmpty()) {
+			return "No problems found.";
+		}
+		StringBuilder text = new StringBuilder();
+		for(Problem problem : problems) {
+			if(text.length() > 0) {
+				text.append("\n");
+			}
+			text.append(problem);
+		}
+		return text.toString();
+	}
+}
@@ -4,6 +4,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.BeforeAll;
@@ -11,6 +14,12 @@ import org.junit.jupiter.api.Test;
 
 import gameEngine.Board;
 import gameEngine.BoardCell;
+import gameEngine.BoardGraph;
+import gameEngine.BoardTemplate;
+import gameEngine.CompactBoardGraph;
+import gameEngine.LazyBoardGraph;
+import gameEngine.Room;
+import gameEngine.RoomDistances;
 
 public class BoardAdjTargetTest {
 
@@ -164,6 +173,182 @@ public class BoardAdjTargetTest {
 			}
 		}
 		
+		/**
+		 * Test that the board's compact graph holds exactly the same neighbors as every cell's adjacency list.
+		 */
+		@Test
+		void testGraphMatchesAdjacency() {
+			BoardGraph graph = board.getGraph();
+			assertEquals(WIDTH * HEIGHT, graph.getCellCount());
+			for(int i = 0; i < HEIGHT; i++) {
+				for(int j = 0; j < WIDTH; j++) {
+					int id = graph.getIndex(i, j);
+					Set<BoardCell> adj = board.getAdjList(i, j);
+					assertEquals(adj.size(), graph.getDegree(id));
+					for(int k = 0; k < graph.getDegree(id); k++) {
+						assertTrue(adj.contains(graph.getCell(graph.getNeighbor(id, k))));
+					}
+				}
+			}
+		}
+
+		/**
+		 * Test that building the adjacency lists in parallel row bands gives the same lists as building them one row at a time.
+		 */
+		@Test
+		void testParallelAdjacency() {
+			//Save every link in every list, built one row at a time.
+			Set<String> serialAdj = new HashSet<String>();
+			for(int i = 0; i < HEIGHT; i++) {
+				for(int j = 0; j < WIDTH; j++) {
+					for(BoardCell cell : board.getAdjList(i, j)) {
+						serialAdj.add(i + "," + j + "->" + cell.getRow() + "," + cell.getCol());
+					}
+				}
+			}
+
+			//Rebuild the board in parallel and compare, including the doors and secret passages linked to room centers.
+			//The files haven't changed, so drop the cached template to make the board load them again.
+			BoardTemplate.clearCache();
+			board.setParallelAdjacency(true);
+			board.initialize();
+			Set<String> parallelAdj = new HashSet<String>();
+			for(int i = 0; i < HEIGHT; i++) {
+				for(int j = 0; j < WIDTH; j++) {
+					for(BoardCell cell : board.getAdjList(i, j)) {
+						parallelAdj.add(i + "," + j + "->" + cell.getRow() + "," + cell.getCol());
+					}
+				}
+			}
+			assertEquals(serialAdj, parallelAdj);
+			//The study is linked to the parlor by a secret passage.
+			assertTrue(parallelAdj.contains("3,22->20,5"));
+
+			board.setParallelAdjacency(false);
+			board.initialize();
+		}
+
+		/**
+		 * Test that a cell on the board can't have its list changed apart from the board's graph, while a cell that isn't on a board can.
+		 */
+		@Test
+		void testGraphOwnsAdjacency() {
+			BoardCell walkway = board.getCell(16, 4);
+			Set<BoardCell> before = new HashSet<BoardCell>(walkway.getAdjList());
+			assertThrows(IllegalStateException.class, () -> walkway.addAdjacency(board.getCell(0, 0)));
+			assertEquals(before, walkway.getAdjList());
+			assertEquals(before.size(), board.getGraph().getDegree(board.getGraph().getIndex(walkway)));
+			//Cells without neighbors belong to the board too.
+			assertThrows(IllegalStateException.class, () -> board.getCell(0, 0).addAdjacency(walkway));
+
+			BoardCell loose = new BoardCell(0, 0);
+			loose.addAdjacency(walkway);
+			assertTrue(loose.getAdjList().contains(walkway));
+		}
+
+		/**
+		 * Test that a lazy graph works out the same lists, only for the cells that are asked about, and finds the same targets and distances.
+		 */
+		@Test
+		void testLazyAdjacency() {
+			//Save every link in every list, and the targets of a long roll, built all at once.
+			Set<String> eagerAdj = new HashSet<String>();
+			for(int i = 0; i < HEIGHT; i++) {
+				for(int j = 0; j < WIDTH; j++) {
+					for(BoardCell cell : board.getAdjList(i, j)) {
+						eagerAdj.add(i + "," + j + "->" + cell.getRow() + "," + cell.getCol());
+					}
+				}
+			}
+			board.calcTargets(board.getCell(16, 4), 8);
+			Set<String> eagerTargets = new HashSet<String>();
+			for(BoardCell cell : board.getTargets()) {
+				eagerTargets.add(cell.getRow() + "," + cell.getCol());
+			}
+
+			BoardTemplate.clearCache();
+			board.setLazyAdjacency(true);
+			board.initialize();
+			LazyBoardGraph graph = (LazyBoardGraph) board.getGraph();
+			//The target table is lazy along with the graph, so only the room centers have lists until a cell is searched or asked about.
+			int centers = 0;
+			for(int id = 0; id < graph.getCellCount(); id++) {
+				if(graph.isRoomCenter(id)) {
+					centers++;
+				}
+			}
+			assertTrue(graph.getListCount() <= centers);
+			Set<String> lazyAdj = new HashSet<String>();
+			for(int i = 0; i < HEIGHT; i++) {
+				for(int j = 0; j < WIDTH; j++) {
+					for(BoardCell cell : board.getAdjList(i, j)) {
+						lazyAdj.add(i + "," + j + "->" + cell.getRow() + "," + cell.getCol());
+					}
+				}
+			}
+			assertEquals(eagerAdj, lazyAdj);
+			//Centers are linked to their doors, and the study to the parlor by the secret passage, without those cells being asked about first.
+			assertTrue(lazyAdj.contains("20,5->15,5"));
+			assertTrue(lazyAdj.contains("3,22->20,5"));
+			board.calcTargets(board.getCell(16, 4), 8);
+			Set<String> lazyTargets = new HashSet<String>();
+			for(BoardCell cell : board.getTargets()) {
+				lazyTargets.add(cell.getRow() + "," + cell.getCol());
+			}
+			assertEquals(eagerTargets, lazyTargets);
+			assertEquals(3, board.getDistanceToRoom(board.getCell(12, 17), 'O'));
+			assertEquals(1, board.getDistanceToRoom(board.getRoom('S').getCenterCell(), 'P'));
+
+			board.setLazyAdjacency(false);
+			BoardTemplate.clearCache();
+			board.initialize();
+		}
+
+		/**
+		 * Test that the distances to room centers agree with the shortest roll that can enter the room.
+		 */
+		@Test
+		void testRoomDistances() {
+			//From (12,17), a roll of 3 is the shortest that can enter the pool.
+			BoardCell startCell = board.getCell(12, 17);
+			assertEquals(3, board.getDistanceToRoom(startCell, 'O'));
+			assertEquals(1, board.getTurnsToRoom(startCell, 'O'));
+			//A doorway is one step from its room, and a room's center is no steps from itself.
+			assertEquals(1, board.getDistanceToRoom(board.getCell(11, 16), 'O'));
+			assertEquals(0, board.getDistanceToRoom(board.getRoom('O').getCenterCell(), 'O'));
+			//The secret passage links the study and the parlor directly.
+			assertEquals(1, board.getDistanceToRoom(board.getRoom('S').getCenterCell(), 'P'));
+			//Walkways and unused spaces are not rooms, so nothing can reach them.
+			assertEquals(-1, board.getDistanceToRoom(startCell, 'W'));
+		}
+
+		/**
+		 * Test that distances longer than a short can hold are stored exactly. The board is one row: the kitchen's center, then a corridor
+		 * of walkways leading back to it.
+		 */
+		@Test
+		void testLongRoomDistances() {
+			int length = 40000;
+			BoardCell[][] cells = new BoardCell[1][length];
+			cells[0][0] = new BoardCell(0, 0);
+			cells[0][0].setRoom('K', false, true);
+			int[] offsets = new int[length + 1];
+			int[] neighbors = new int[length - 1];
+			for(int j = 1; j < length; j++) {
+				cells[0][j] = new BoardCell(0, j);
+				cells[0][j].setWalkway();
+				neighbors[j - 1] = j - 1;
+				offsets[j + 1] = j;
+			}
+			Room kitchen = new Room("Kitchen");
+			kitchen.setCenterCell(cells[0][0]);
+			Map<Character, Room> rooms = new HashMap<Character, Room>();
+			rooms.put('K', kitchen);
+			RoomDistances distances = new RoomDistances(new CompactBoardGraph(cells, offsets, neighbors), rooms);
+			assertEquals(length - 1, distances.getDistance(cells[0][length - 1], 'K'));
+			assertEquals(Short.MAX_VALUE + 1, distances.getDistance(cells[0][Short.MAX_VALUE + 1], 'K'));
+		}
+		
 		/**
 		 * Randomly selected locations to test the expected return of calculating targets down a walkway.
 		 */
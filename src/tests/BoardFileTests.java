@@ -0,0 +1,292 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import gameEngine.BadConfigFormatException;
+import gameEngine.Board;
+import gameEngine.BoardCell;
+import gameEngine.BoardFile;
+import gameEngine.BoardGraph;
+import gameEngine.CardRegistry;
+import gameEngine.DoorDirection;
+import gameEngine.Player;
+
+/**
+ * Tests that a board compiled to a binary file loads back exactly as it was loaded from its setup and layout files.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+class BoardFileTests {
+	private static final String COMPILED_FILE = "ClueLayoutTest.board";
+	private static Board board;
+
+	@BeforeAll
+	public static void setUp() throws BadConfigFormatException, IOException {
+		board = Board.getInstance();
+		BoardFile.compile("ClueLayout.csv", "ClueSetup.txt", "data/" + COMPILED_FILE);
+	}
+
+	@AfterAll
+	public static void tearDown() {
+		new File("data/" + COMPILED_FILE).delete();
+		board.setConfigFiles("ClueLayout.csv", "ClueSetup.txt");
+		board.initialize();
+	}
+
+	/**
+	 * Every cell, and every adjacency list, should be the same whether the board was loaded from text or from the compiled file.
+	 */
+	@Test
+	void testCompiledBoardMatchesText() {
+		board.setConfigFiles("ClueLayout.csv", "ClueSetup.txt");
+		board.initialize();
+		int rows = board.getRowCount(), cols = board.getColumnCount();
+		String[][] textCells = new String[rows][cols];
+		for(int i = 0; i < rows; i++) {
+			for(int j = 0; j < cols; j++) {
+				textCells[i][j] = describe(board.getCell(i, j));
+			}
+		}
+		int deckSize = board.getDeck().size();
+
+		board.setCompiledFile(COMPILED_FILE);
+		board.initialize();
+		assertEquals(rows, board.getRowCount());
+		assertEquals(cols, board.getColumnCount());
+		for(int i = 0; i < rows; i++) {
+			for(int j = 0; j < cols; j++) {
+				assertEquals(textCells[i][j], describe(board.getCell(i, j)));
+			}
+		}
+
+		//Check a door, a center with a secret passage, and the cards and players.
+		assertEquals(DoorDirection.RIGHT, board.getCell(12, 21).getDoorDirection());
+		assertTrue(board.getRoom('S').getCenterCell().getAdjList().contains(board.getRoom('P').getCenterCell()));
+		assertEquals("Pool", board.getRoom('O').getName());
+		assertEquals(deckSize, board.getDeck().size());
+		assertEquals(6, board.getPlayers().size());
+		assertEquals("Ramona Rodriguez", board.getHumanPlayer().getName());
+		assertEquals(3, board.getSolution().size());
+
+		//Targets are calculated the same way from the compiled graph.
+		board.calcTargets(board.getCell(12, 17), 3);
+		assertTrue(board.getTargets().contains(board.getRoom('O').getCenterCell()));
+	}
+
+	/**
+	 * Loading a file that isn't a compiled board should fail, leaving the board without a graph.
+	 */
+	@Test
+	void testRejectsTextFile() {
+		board.setCompiledFile("ClueLayout.csv");
+		board.initialize();
+		assertNull(board.getGraph());
+		assertThrows(BadConfigFormatException.class, () -> {
+			new BoardFile("data/ClueLayout.csv");
+		});
+	}
+
+	/**
+	 * Initializing the board again with the same files should reuse the cached template, while starting a fresh game on it.
+	 */
+	@Test
+	void testTemplateReuse() {
+		board.setConfigFiles("ClueLayout.csv", "ClueSetup.txt");
+		board.initialize();
+		BoardCell cell = board.getCell(7, 5);
+		cell.setOccupied(true);
+		Player human = board.getHumanPlayer();
+
+		board.initialize();
+		//The new game has cells of its own, all empty, and the last game's cells are left as they were.
+		assertNotSame(cell, board.getCell(7, 5));
+		assertFalse(board.getCell(7, 5).getOccupied());
+		assertTrue(cell.getOccupied());
+		board.calcTargets(board.getCell(7, 6), 1);
+		assertTrue(board.getTargets().contains(board.getCell(7, 5)));
+		//The players are new, with new hands.
+		assertNotSame(human, board.getHumanPlayer());
+		assertEquals(human.getName(), board.getHumanPlayer().getName());
+		assertEquals(3, board.getHumanPlayer().getHand().size());
+		assertEquals(3, board.getSolution().size());
+	}
+
+	/**
+	 * A template built with one adjacency setting shouldn't be reused once the setting changes.
+	 */
+	@Test
+	void testTemplateOptions() {
+		board.setConfigFiles("ClueLayout.csv", "ClueSetup.txt");
+		board.initialize();
+		assertFalse(board.getGraph().isLazy());
+		try {
+			board.setLazyAdjacency(true);
+			board.initialize();
+			assertTrue(board.getGraph().isLazy());
+		}
+		finally {
+			board.setLazyAdjacency(false);
+			board.initialize();
+		}
+		assertFalse(board.getGraph().isLazy());
+	}
+
+	/**
+	 * Two boards started from the same template should never see each other's occupancy or cells.
+	 */
+	@Test
+	void testTemplateBoardsIndependent() {
+		board.setConfigFiles("ClueLayout.csv", "ClueSetup.txt");
+		board.initialize();
+		Board other = new Board();
+		other.setConfigFiles("ClueLayout.csv", "ClueSetup.txt");
+		other.initialize();
+		assertNotSame(board.getCell(7, 5), other.getCell(7, 5));
+		assertNotSame(board.getRoom('K').getCenterCell(), other.getRoom('K').getCenterCell());
+		assertSame(other.getCell(board.getRoom('K').getCenterCell().getRow(), board.getRoom('K').getCenterCell().getCol()),
+				other.getRoom('K').getCenterCell());
+
+		//Blocking a cell on one board changes only that board's targets.
+		other.getCell(7, 5).setOccupied(true);
+		assertFalse(board.getCell(7, 5).getOccupied());
+		board.calcTargets(board.getCell(7, 6), 1);
+		assertTrue(board.getTargets().contains(board.getCell(7, 5)));
+		other.calcTargets(other.getCell(7, 6), 1);
+		assertFalse(other.getTargets().contains(other.getCell(7, 5)));
+		for(BoardCell target : other.getTargets()) {
+			assertSame(target, other.getCell(target.getRow(), target.getCol()));
+		}
+	}
+
+	/**
+	 * A setup with more cards than fit in a short should compile and load back with every card.
+	 */
+	@Test
+	void testLargeDeck() throws BadConfigFormatException, IOException {
+		//The setup file ends at its first blank line, so the extra cards go straight after its last line.
+		StringBuilder setup = new StringBuilder(new String(Files.readAllBytes(Paths.get("data/ClueSetup.txt"))).trim()).append("\n");
+		for(int k = 0; k < 40000; k++) {
+			setup.append("Weapon, Weapon").append(k).append("\n");
+		}
+		Files.write(Paths.get("data/ClueSetupLarge.txt"), setup.toString().getBytes());
+		try {
+			BoardFile.compile("ClueLayout.csv", "ClueSetupLarge.txt", "data/" + COMPILED_FILE);
+			BoardFile file = new BoardFile("data/" + COMPILED_FILE);
+			assertEquals(40021, file.getCards().size());
+			assertEquals(6, file.getPlayers().size());
+		}
+		finally {
+			new File("data/ClueSetupLarge.txt").delete();
+			BoardFile.compile("ClueLayout.csv", "ClueSetup.txt", "data/" + COMPILED_FILE);
+		}
+	}
+	
+	/**
+	 * A compiled file with a neighbor id past the last cell should be rejected as corrupt when it is loaded.
+	 */
+	@Test
+	void testRejectsBadNeighbor() throws IOException {
+		String copy = "data/Corrupt" + COMPILED_FILE;
+		Files.copy(Paths.get("data/" + COMPILED_FILE), Paths.get(copy));
+		try(RandomAccessFile file = new RandomAccessFile(copy, "rw")) {
+			//Skip the header and the rooms, then the cells and the offsets, to find the first neighbor id.
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(Paths.get(copy)));
+			buffer.position(6);
+			int roomCount = buffer.getInt();
+			for(int k = 0; k < roomCount; k++) {
+				buffer.getChar();
+				int nameLength = buffer.getShort() & 0xffff;
+				buffer.position(buffer.position() + nameLength);
+			}
+			int cellCount = buffer.getInt() * buffer.getInt();
+			file.seek(buffer.position() + cellCount * 6L + (cellCount + 1) * 4L);
+			file.writeInt(cellCount);
+		}
+		try {
+			assertThrows(BadConfigFormatException.class, () -> {
+				new BoardFile(copy);
+			});
+		}
+		finally {
+			new File(copy).delete();
+		}
+	}
+
+	/**
+	 * A compiled file cut short anywhere should be rejected as corrupt, rather than failing with some other exception.
+	 */
+	@Test
+	void testRejectsTruncatedFile() throws IOException {
+		byte[] bytes = Files.readAllBytes(Paths.get("data/" + COMPILED_FILE));
+		String copy = "data/Truncated" + COMPILED_FILE;
+		try {
+			for(int length = 0; length < bytes.length; length += 97) {
+				Files.write(Paths.get(copy), Arrays.copyOf(bytes, length));
+				assertThrows(BadConfigFormatException.class, () -> {
+					new BoardFile(copy);
+				});
+			}
+		}
+		finally {
+			new File(copy).delete();
+		}
+	}
+
+	/**
+	 * Compiling a board from code should leave the game's board as it was.
+	 */
+	@Test
+	void testCompileLeavesGame() throws BadConfigFormatException, IOException {
+		board.setConfigFiles("ClueLayout306.csv", "ClueSetup306.txt");
+		board.initialize();
+		BoardGraph graph = board.getGraph();
+		Player human = board.getHumanPlayer();
+		try {
+			BoardFile.compile("ClueLayout.csv", "ClueSetup.txt", "data/" + COMPILED_FILE);
+			assertSame(graph, board.getGraph());
+			assertSame(human, board.getHumanPlayer());
+			assertSame(board.getRegistry(), CardRegistry.getActive());
+		}
+		finally {
+			board.setConfigFiles("ClueLayout.csv", "ClueSetup.txt");
+			board.initialize();
+		}
+	}
+
+	/**
+	 * Describes everything about a cell that the compiled file stores, including its neighbors.
+	 * @param cell - A board cell.
+	 * @return - A string that is equal for two cells only if they match.
+	 */
+	private static String describe(BoardCell cell) {
+		StringBuilder builder = new StringBuilder();
+		builder.append(cell.getInitial()).append(cell.isRoomCenter()).append(cell.isLabel()).append(cell.getDoorDirection())
+				.append(cell.getSecretPassage()).append(cell.getisInRoom());
+		Set<BoardCell> adj = cell.getAdjList();
+		boolean[][] neighbors = new boolean[board.getRowCount()][board.getColumnCount()];
+		for(BoardCell next : adj) {
+			neighbors[next.getRow()][next.getCol()] = true;
+		}
+		for(int i = 0; i < neighbors.length; i++) {
+			for(int j = 0; j < neighbors[i].length; j++) {
+				if(neighbors[i][j]) {
+					builder.append(" ").append(i).append(",").append(j);
+				}
+			}
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,113 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import gameEngine.CardRegistry;
+import gameEngine.CardType;
+import gameEngine.ConfigValidator;
+import gameEngine.ProblemType;
+import gameEngine.ValidationReport;
+
+/**
+ * Tests that validating a setup and layout file reports every problem in them, rather than stopping at the first.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+class ConfigValidatorTests {
+	private static final String BAD_LAYOUT = "data/ClueLayoutManyErrors.csv";
+
+	@BeforeAll
+	public static void setUp() throws IOException {
+		//A 4x4 layout with an unknown room, a short line, a secret passage to nowhere, and a door into a walkway. Room G has no label.
+		try(FileWriter writer = new FileWriter(BAD_LAYOUT)) {
+			writer.write("K#,K*,W,W\n");
+			writer.write("Q,W,W<,W\n");
+			writer.write("G*,GZ,W\n");
+			writer.write("G,G,Wv,X\n");
+		}
+	}
+
+	@AfterAll
+	public static void tearDown() {
+		new File(BAD_LAYOUT).delete();
+	}
+
+	/**
+	 * The game's own files should have no problems.
+	 */
+	@Test
+	void testValidFiles() {
+		ValidationReport report = ConfigValidator.validate("data/ClueLayout.csv", "data/ClueSetup.txt");
+		assertTrue(report.isValid());
+	}
+
+	/**
+	 * Validating files should leave the game's registry alone, even when the setup file declares cards the game doesn't have.
+	 */
+	@Test
+	void testRegistryUntouched() throws IOException {
+		CardRegistry active = CardRegistry.getActive();
+		int size = active.size();
+		String setup = "data/ClueSetupExtraCards.txt";
+		try(FileWriter writer = new FileWriter(setup)) {
+			writer.write("Room, Vault, V\n");
+			writer.write("Weapon, Anvil\n");
+			writer.write("NPC, Nobody, 255, 0, 0, 0, 0\n");
+		}
+		try {
+			ConfigValidator.validate("data/ClueLayout.csv", setup);
+			ConfigValidator.validate("data/ClueLayout.csv", "data/ClueSetup.txt");
+		}
+		finally {
+			new File(setup).delete();
+		}
+		assertSame(active, CardRegistry.getActive());
+		assertEquals(size, active.size());
+		assertEquals(-1, active.findId("Anvil", CardType.WEAPON));
+	}
+
+	/**
+	 * Every problem in the layout should be reported, with the line it is on.
+	 */
+	@Test
+	void testEveryLayoutProblem() {
+		ValidationReport report = ConfigValidator.validate(BAD_LAYOUT, "data/ClueSetup.txt");
+		assertFalse(report.isValid());
+		List<ValidationReport.Problem> problems = report.getProblems(ProblemType.UNKNOWN_ROOM);
+		assertEquals(1, problems.size());
+		assertEquals(1, problems.get(0).getLine());
+		assertEquals(2, report.getProblems(ProblemType.WRONG_COLUMN_COUNT).get(0).getLine());
+		assertEquals(2, report.getProblems(ProblemType.BAD_SECRET_PASSAGE).get(0).getLine());
+		//The door on line 1 leads into a walkway, and the door on line 3 leads off the board.
+		problems = report.getProblems(ProblemType.DOOR_INTO_NON_ROOM);
+		assertEquals(2, problems.size());
+		assertEquals(1, problems.get(0).getLine());
+		assertEquals(3, problems.get(1).getLine());
+		//Garden has no label, and the rooms that aren't on the board have neither a center nor a label.
+		assertEquals(7, report.getProblems(ProblemType.MISSING_CENTER).size());
+		assertEquals(8, report.getProblems(ProblemType.MISSING_LABEL).size());
+	}
+
+	/**
+	 * A bad setup file should report its bad line and the types of card it is missing, and a missing file should be reported on its own.
+	 */
+	@Test
+	void testSetupProblems() {
+		ValidationReport report = ConfigValidator.validate("data/ClueLayout306.csv", "data/ClueSetupBadFormat306.txt");
+		assertEquals(1, report.getProblems(ProblemType.BAD_RECORD).size());
+		assertEquals(2, report.getProblems(ProblemType.MISSING_CARD_TYPE).size());
+
+		report = ConfigValidator.validate("data/ClueLayout.csv", "data/NoSuchSetup.txt");
+		assertEquals(1, report.getProblems().size());
+		assertEquals(ProblemType.MISSING_FILE, report.getProblems().get(0).getType());
+	}
+}
@@ -0,0 +1,84 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import gameEngine.BadConfigFormatException;
+import gameEngine.ErrorLog;
+
+/**
+ * Tests that configuration errors reach the error log once it has been flushed.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+class ErrorLogTests {
+	private Path logFile;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		//Write to a file of the test's own, so the game's log isn't filled with test errors.
+		logFile = Files.createTempFile("errorlog", ".txt");
+		ErrorLog.setLogFile(logFile.toString());
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		ErrorLog.setLogFile(null);
+		Files.deleteIfExists(logFile);
+	}
+
+	/**
+	 * Every error logged before a flush should be in the log file, in the order it was logged.
+	 */
+	@Test
+	void testFlushWritesErrors() throws IOException {
+		String first = "ErrorLogTests first " + System.nanoTime();
+		String second = "ErrorLogTests second " + System.nanoTime();
+		new BadConfigFormatException(first);
+		new BadConfigFormatException(second);
+		ErrorLog.flush();
+		List<String> lines = Files.readAllLines(Paths.get(ErrorLog.getLogFile()));
+		assertTrue(lines.contains(first));
+		assertTrue(lines.contains(second));
+		assertTrue(lines.indexOf(first) < lines.indexOf(second));
+	}
+
+	/**
+	 * Errors should be written in the order they were logged, even while another thread keeps flushing the log.
+	 */
+	@Test
+	void testOrderWhileFlushing() throws IOException, InterruptedException {
+		String prefix = "ErrorLogTests order " + System.nanoTime() + " ";
+		Thread logger = new Thread(() -> {
+			for(int k = 0; k < 20000; k++) {
+				ErrorLog.log(prefix + k);
+			}
+		});
+		logger.start();
+		while(logger.isAlive()) {
+			ErrorLog.flush();
+		}
+		logger.join();
+		ErrorLog.flush();
+		//Errors logged faster than they can be written may be dropped, but those written must be in order.
+		int last = -1, written = 0;
+		for(String line : Files.readAllLines(Paths.get(ErrorLog.getLogFile()))) {
+			if(line.startsWith(prefix)) {
+				int k = Integer.parseInt(line.substring(prefix.length()));
+				assertTrue(k > last);
+				last = k;
+				written++;
+			}
+		}
+		assertTrue(written > 0);
+	}
+}
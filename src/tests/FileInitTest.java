@@ -2,17 +2,29 @@ package tests;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Assert;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import gameEngine.BadConfigFormatException;
 import gameEngine.Board;
 import gameEngine.BoardCell;
+import gameEngine.Card;
 import gameEngine.DoorDirection;
+import gameEngine.LayoutParser;
+import gameEngine.Player;
 import gameEngine.Room;
+import gameEngine.SetupParser;
 
 
 class FileInitTest {
@@ -287,4 +299,77 @@ class FileInitTest {
 		assertEquals(board.getNumRows(),HEIGHT);
 		assertEquals(board.getNumColumns(), WIDTH);
 	}
+	
+	/**
+	 * A large layout loaded in parallel chunks should have the same cells, room centers, and labels as one loaded in order.
+	 */
+	@Test
+	void testParallelLoading() throws IOException, BadConfigFormatException {
+		//Build a large layout by repeating the game's layout, so each room has many centers and the last one in the file should be kept.
+		String tiledFile = "data/ClueLayoutTiled.csv";
+		List<String> lines = Files.readAllLines(Paths.get("data/ClueLayout.csv"));
+		try(FileWriter writer = new FileWriter(tiledFile)) {
+			for(int copy = 0; copy < 40; copy++) {
+				for(String line : lines) {
+					for(int k = 0; k < 10; k++) {
+						writer.write((k == 0 ? "" : ",") + line);
+					}
+					writer.write("\n");
+				}
+			}
+		}
+		try {
+			Map<Character, Room> serialRooms = new HashMap<Character, Room>();
+			Map<Character, Room> parallelRooms = new HashMap<Character, Room>();
+			BoardCell[][] serial = loadLayout(tiledFile, serialRooms, false);
+			BoardCell[][] parallel = loadLayout(tiledFile, parallelRooms, true);
+			assertEquals(HEIGHT * 40, parallel.length);
+			assertEquals(WIDTH * 10, parallel[0].length);
+			for(int i = 0; i < serial.length; i++) {
+				for(int j = 0; j < serial[i].length; j++) {
+					BoardCell a = serial[i][j], b = parallel[i][j];
+					assertEquals(i, b.getRow());
+					assertEquals(j, b.getCol());
+					assertEquals(a.getInitial(), b.getInitial());
+					assertEquals(a.getDoorDirection(), b.getDoorDirection());
+					assertEquals(a.isRoomCenter(), b.isRoomCenter());
+					assertEquals(a.isLabel(), b.isLabel());
+					assertEquals(a.getSecretPassage(), b.getSecretPassage());
+				}
+			}
+			//The garden's center is the last one in the file.
+			assertEquals(HEIGHT * 39 + 3, parallelRooms.get('G').getCenterCell().getRow());
+			assertEquals(WIDTH * 9 + 1, parallelRooms.get('G').getCenterCell().getCol());
+			for(char initial : serialRooms.keySet()) {
+				assertEquals(cellName(serialRooms.get(initial).getCenterCell()), cellName(parallelRooms.get(initial).getCenterCell()));
+				assertEquals(cellName(serialRooms.get(initial).getLabelCell()), cellName(parallelRooms.get(initial).getLabelCell()));
+			}
+		}
+		finally {
+			new File(tiledFile).delete();
+		}
+	}
+	
+	/**
+	 * Loads the game's setup file and a layout file.
+	 * @param layoutFile - The path of the layout file.
+	 * @param rooms - The map to load the rooms into.
+	 * @param parallel - Whether to parse the layout in parallel.
+	 * @return - The cells of the layout.
+	 */
+	private static BoardCell[][] loadLayout(String layoutFile, Map<Character, Room> rooms, boolean parallel) throws BadConfigFormatException {
+		new SetupParser("data/ClueSetup.txt").parse(rooms, new ArrayList<Card>(), new ArrayList<Player>());
+		LayoutParser parser = new LayoutParser(layoutFile, "data/ClueSetup.txt", rooms);
+		parser.setParallel(parallel);
+		return parser.parse();
+	}
+	
+	/**
+	 * Names a cell by its position.
+	 * @param cell - A board cell, or null.
+	 * @return - The cell's row and column, or "none".
+	 */
+	private static String cellName(BoardCell cell) {
+		return cell == null ? "none" : cell.getRow() + "," + cell.getCol();
+	}
 }
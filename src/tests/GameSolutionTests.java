@@ -132,6 +132,40 @@ class GameSolutionTests {
 		assertTrue((returned.equals(cPerson)) || (returned.equals(cWeapon)));
 	}
 	
+	/**
+	 * Test that a player holding more than one card from a suggestion shows the one with the lowest id, and that the bitmask check agrees
+	 * with the check by cards.
+	 */
+	@Test
+	public void testDisproveByLowestId() {
+		ArrayList<Card> deck = board.getDeck();
+		Card low = deck.get(0), middle = deck.get(9), high = deck.get(20);
+		Player player = new ComputerPlayer("Bitmask Player", Color.red, 0, 0);
+		player.updateHand(high);
+		player.updateHand(low);
+		player.updateHand(deck.get(5));
+		CardSet sug = new CardSet();
+		sug.add(high);
+		sug.add(middle);
+		sug.add(low);
+		//Both cards in the hand are in the suggestion, and the lower id is shown no matter the order they were dealt in.
+		assertEquals(Math.min(low.getId(), high.getId()), player.getDisprovingId(sug));
+		assertEquals(board.getRegistry().getCard(player.getDisprovingId(sug)), player.disproveSuggestion(new HashSet<Card>(sug)));
+		//Without those cards, nothing in the hand matches.
+		sug.remove(low);
+		sug.remove(high);
+		assertEquals(-1, player.getDisprovingId(sug));
+		assertNull(player.disproveSuggestion(sug));
+		
+		//A hand is still a set of cards, equal to a hash set of the same cards.
+		Set<Card> expected = new HashSet<Card>();
+		expected.add(low);
+		expected.add(high);
+		expected.add(deck.get(5));
+		assertEquals(expected, player.getHand());
+		assertEquals(expected.hashCode(), player.getHand().hashCode());
+	}
+	
 	/**
 	 * Test to ensure that suggestions are handled in Board.java properly
 	 */
@@ -194,5 +228,58 @@ class GameSolutionTests {
 		//The 3nd player should beat the 5th to challenging the suggestion, and the method should return cRoom
 		assertEquals(cRoom, board.checkSuggestion(sug, players.get(5)));
 	}
+	
+	/**
+	 * Test that solutions and accusations packed into keys compare the same way checkAccusation() does, and that the board's solution can't
+	 * be changed through the set getSolution() returns.
+	 */
+	@Test
+	public void testSolutionKey() {
+		Card knife = new Card("Knife", CardType.WEAPON);
+		Card axe = new Card("Axe", CardType.WEAPON);
+		Card pool = new Card("Pool", CardType.ROOM);
+		Card ramona = new Card("Ramona Rodriguez", CardType.PERSON);
+		Set<Card> soln = new HashSet<Card>();
+		soln.add(knife);
+		soln.add(pool);
+		soln.add(ramona);
+		board.setSolution(soln);
+		
+		//The key holds each card's id in its type's slot, and a full key made from ids is the same long.
+		long key = board.getSolutionKey();
+		assertEquals(knife.getId(), SolutionKey.getId(key, CardType.WEAPON));
+		assertEquals(pool.getId(), SolutionKey.getId(key, CardType.ROOM));
+		assertEquals(ramona.getId(), SolutionKey.getId(key, CardType.PERSON));
+		assertEquals(key, SolutionKey.of(ramona.getId(), pool.getId(), knife.getId()));
+		assertEquals(soln, SolutionKey.toCards(key, board.getRegistry()));
+		
+		//An accusation that leaves out a type isn't wrong about it, but one with a second card of a type is.
+		Set<Card> partial = new HashSet<Card>();
+		partial.add(knife);
+		partial.add(pool);
+		assertTrue(board.checkAccusation(partial));
+		assertEquals(-1, SolutionKey.getId(SolutionKey.of(partial), CardType.PERSON));
+		partial.add(axe);
+		assertEquals(SolutionKey.CONFLICT, SolutionKey.of(partial));
+		assertFalse(board.checkAccusation(partial));
+		assertFalse(board.checkAccusation(SolutionKey.toCards(SolutionKey.with(key, CardType.WEAPON, axe.getId()), board.getRegistry())));
+		assertThrows(IllegalArgumentException.class, () -> {
+			board.setSolution(partial);
+		});
+		
+		//Ids too large for a slot are refused, rather than spilling into the next type's slot.
+		assertEquals(SolutionKey.SLOT_MASK, SolutionKey.with(SolutionKey.EMPTY, CardType.PERSON, (int) SolutionKey.SLOT_MASK - 1));
+		assertThrows(IllegalArgumentException.class, () -> {
+			SolutionKey.with(key, CardType.PERSON, (int) SolutionKey.SLOT_MASK);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			SolutionKey.of(1 << SolutionKey.SLOT_BITS, pool.getId(), knife.getId());
+		});
+		
+		//Changing the returned set doesn't change the solution.
+		Set<Card> returned = board.getSolution();
+		returned.addAll(board.getDeck());
+		assertEquals(soln, board.getSolution());
+		assertTrue(board.checkAccusation(soln));
+	}
 }
-
@@ -0,0 +1,225 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import gameEngine.BadConfigFormatException;
+import gameEngine.Board;
+import gameEngine.BoardCell;
+import gameEngine.BoardTemplate;
+import gameEngine.Card;
+import gameEngine.HumanPlayer;
+import gameEngine.Player;
+
+/**
+ * Tests that reloading an edited layout file into a game in progress gives the same board as loading it from scratch, while the players
+ * keep their hands.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+class ReloadTests {
+	private static final String LAYOUT_FILE = "data/ClueLayoutReload.csv";
+	private static Board board;
+	private static List<String[]> original;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		original = new ArrayList<String[]>();
+		for(String line : Files.readAllLines(Paths.get("data/ClueLayout.csv"))) {
+			original.add(line.split(","));
+		}
+		writeLayout(original);
+		board = Board.getInstance();
+		board.setConfigFiles("ClueLayoutReload.csv", "ClueSetup.txt");
+		board.initialize();
+	}
+
+	@AfterAll
+	public static void tearDown() {
+		new File(LAYOUT_FILE).delete();
+		board.setConfigFiles("ClueLayout.csv", "ClueSetup.txt");
+		board.initialize();
+	}
+
+	/**
+	 * Changing a few walkways, doors, and a label should patch the board to match the edited file exactly.
+	 */
+	@Test
+	void testPatchMatchesFreshLoad() throws IOException, BadConfigFormatException {
+		List<String[]> edited = copyLayout();
+		//Remove a door into the garden, block a walkway, add a door into the parlor, and move the pool's label.
+		edited.get(7)[1] = "W";
+		edited.get(8)[5] = "X";
+		edited.get(16)[8] = "W<";
+		edited.get(10)[11] = "O";
+		edited.get(11)[11] = "O#";
+		writeLayout(edited);
+		Player player = board.getPlayers().get(0);
+		Set<Card> hand = new HashSet<Card>(player.getHand());
+		BoardCell untouched = board.getCell(0, 4);
+
+		board.reloadLayout();
+		String reloaded = describeBoard();
+		//Cells that didn't change are kept, and the players keep their hands.
+		assertSame(untouched, board.getCell(0, 4));
+		assertEquals(hand, player.getHand());
+		assertFalse(board.getCell(7, 1).isDoorway());
+		assertEquals(board.getCell(11, 11), board.getRoom('O').getLabelCell());
+		assertTrue(board.getRoom('P').getCenterCell().getAdjList().contains(board.getCell(16, 8)));
+		assertFalse(board.getRoom('G').getCenterCell().getAdjList().contains(board.getCell(7, 1)));
+
+		BoardTemplate.clearCache();
+		board.initialize();
+		assertEquals(describeBoard(), reloaded);
+	}
+
+	/**
+	 * Moving a room center rebuilds the whole board, and a player on a room cell that is no longer the center is moved to the new center.
+	 */
+	@Test
+	void testCenterMoved() throws IOException, BadConfigFormatException {
+		Player player = board.getPlayers().get(1);
+		player.setPosition(board.getRoom('G').getCenterCell());
+		List<String[]> edited = copyLayout();
+		edited.get(3)[1] = "G";
+		edited.get(4)[1] = "G*";
+		writeLayout(edited);
+
+		board.reloadLayout();
+		assertEquals(board.getCell(4, 1), board.getRoom('G').getCenterCell());
+		assertEquals(board.getCell(4, 1), player.getPosition());
+		String reloaded = describeBoard();
+		BoardTemplate.clearCache();
+		board.initialize();
+		assertEquals(describeBoard(), reloaded);
+	}
+
+	/**
+	 * A player left where they were by a reload should free their square when they next move, whether the reload replaced that square or
+	 * rebuilt the whole board.
+	 */
+	@Test
+	void testMoveAfterReload() throws IOException, BadConfigFormatException {
+		Player player = board.getHumanPlayer();
+		player.getPosition().setOccupied(false);
+		player.setPosition(board.getCell(16, 8));
+		board.getCell(16, 8).setOccupied(true);
+		//Add a door into the parlor under the player, which only patches the board.
+		List<String[]> edited = copyLayout();
+		edited.get(16)[8] = "W<";
+		writeLayout(edited);
+		board.reloadLayout();
+		assertTrue(board.getCell(16, 8).getOccupied());
+		moveOneStep(player);
+		assertFalse(board.getCell(16, 8).getOccupied());
+
+		//Moving a room center rebuilds every cell.
+		int row = player.getRow(), col = player.getCol();
+		edited.get(3)[1] = "G";
+		edited.get(4)[1] = "G*";
+		writeLayout(edited);
+		board.reloadLayout();
+		assertTrue(board.getCell(row, col).getOccupied());
+		moveOneStep(player);
+		assertFalse(board.getCell(row, col).getOccupied());
+	}
+
+	/**
+	 * Moves a human player to one of the cells a roll of 1 can reach.
+	 * @param player - The human player.
+	 */
+	private static void moveOneStep(Player player) {
+		board.calcTargets(player.getPosition(), 1);
+		BoardCell target = board.getTargets().iterator().next();
+		((HumanPlayer) player).setNewTarget(target);
+		((HumanPlayer) player).move();
+		assertTrue(target.getOccupied());
+	}
+
+	/**
+	 * A layout with a door into a room that has no center can't be built, so the current board should be kept.
+	 */
+	@Test
+	void testBadEditKeepsBoard() throws IOException {
+		List<String[]> edited = copyLayout();
+		edited.get(3)[10] = "A";
+		writeLayout(edited);
+		BoardCell center = board.getRoom('A').getCenterCell();
+		assertThrows(BadConfigFormatException.class, () -> {
+			board.reloadLayout();
+		});
+		assertSame(center, board.getRoom('A').getCenterCell());
+		assertSame(center, board.getCell(3, 10));
+	}
+
+	/**
+	 * Copies the original layout so a test can edit it.
+	 * @return - The layout's tiles, one array per row.
+	 */
+	private static List<String[]> copyLayout() {
+		List<String[]> copy = new ArrayList<String[]>();
+		for(String[] row : original) {
+			copy.add(row.clone());
+		}
+		return copy;
+	}
+
+	/**
+	 * Writes a layout to the test's layout file.
+	 * @param layout - The layout's tiles, one array per row.
+	 */
+	private static void writeLayout(List<String[]> layout) throws IOException {
+		StringBuilder text = new StringBuilder();
+		for(String[] row : layout) {
+			text.append(String.join(",", row)).append("\n");
+		}
+		Files.write(Paths.get(LAYOUT_FILE), text.toString().getBytes());
+	}
+
+	/**
+	 * Describes every cell of the board, its neighbors, and the targets of a short roll from it.
+	 * @return - A string that is equal for two boards only if they match.
+	 */
+	private static String describeBoard() {
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < board.getRowCount(); i++) {
+			for(int j = 0; j < board.getColumnCount(); j++) {
+				BoardCell cell = board.getCell(i, j);
+				builder.append(cell.getInitial()).append(cell.getDoorDirection()).append(cell.isRoomCenter()).append(cell.isLabel())
+						.append(cell.getSecretPassage()).append(positions(cell.getAdjList()));
+				if(cell.getInitial() == 'W' || cell.isRoomCenter()) {
+					board.calcTargets(cell, 3);
+					builder.append(positions(board.getTargets()));
+				}
+				builder.append("\n");
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Lists the positions of a set of cells in order.
+	 * @param cells - A set of cells.
+	 * @return - The sorted positions.
+	 */
+	private static String positions(Set<BoardCell> cells) {
+		List<String> names = new ArrayList<String>();
+		for(BoardCell cell : cells) {
+			names.add(cell.getRow() + "," + cell.getCol());
+		}
+		names.sort(null);
+		return names.toString();
+	}
+}
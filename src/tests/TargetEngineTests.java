@@ -0,0 +1,183 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import gameEngine.Board;
+import gameEngine.BoardCell;
+import gameEngine.TargetBuffer;
+import gameEngine.TargetCache;
+import gameEngine.TargetFinder;
+
+/**
+ * Tests for the target search engines used behind Board.calcTargets(), ensuring they agree with the results the board has always produced.
+ * @author Derek Suzumoto
+ * @author Luke Wakumoto
+ */
+class TargetEngineTests {
+	private static Board board;
+	private static TargetFinder finder;
+
+	@BeforeAll
+	public static void setUp() {
+		board = Board.getInstance();
+		board.setConfigFiles("ClueLayout.csv", "ClueSetup.txt");
+		board.initialize();
+		finder = board.getTargetFinder();
+	}
+
+	/**
+	 * The finder should write the same targets into a bitset that calcTargets() puts in the target set.
+	 */
+	@Test
+	void testFinderMatchesCalcTargets() {
+		BitSet found = new BitSet();
+		//Check every cell on the board, and every roll a single die can produce.
+		for(int i = 0; i < board.getRowCount(); i++) {
+			for(int j = 0; j < board.getColumnCount(); j++) {
+				BoardCell start = board.getCell(i, j);
+				for(int roll = 1; roll <= 6; roll++) {
+					board.calcTargets(start, roll);
+					int count = finder.findTargets(finder.getIndex(start), roll, true, found, null);
+					Set<BoardCell> fromFinder = new HashSet<BoardCell>();
+					finder.addCells(found, fromFinder);
+					assertEquals(board.getTargets().size(), count);
+					assertEquals(board.getTargets(), fromFinder);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Occupied walkway cells should block the finder, while occupied room centers should not.
+	 */
+	@Test
+	void testFinderOccupancy() {
+		//Block both sides of (7,6), leaving only (8,6) reachable with a roll of 1.
+		BoardCell startCell = board.getCell(7, 6);
+		board.getCell(7, 5).setOccupied(true);
+		board.getCell(7, 7).setOccupied(true);
+		BitSet found = new BitSet();
+		assertEquals(1, finder.findTargets(finder.getIndex(startCell), 1, true, found, null));
+		assertTrue(found.get(finder.getIndex(board.getCell(8, 6))));
+		//Ignoring occupancy, all three neighbors are targets.
+		assertEquals(3, finder.findTargets(finder.getIndex(startCell), 1, false, found, null));
+		board.getCell(7, 5).setOccupied(false);
+		board.getCell(7, 7).setOccupied(false);
+
+		//An occupied room center can still be entered.
+		BoardCell poolCenter = board.getRoom('O').getCenterCell();
+		poolCenter.setOccupied(true);
+		finder.findTargets(finder.getIndex(board.getCell(12, 17)), 3, true, found, null);
+		assertTrue(found.get(finder.getIndex(poolCenter)));
+		poolCenter.setOccupied(false);
+	}
+
+	/**
+	 * The targets for every roll calculated in one pass should match calling calcTargets() once per roll.
+	 */
+	@Test
+	void testAllRollsMatchCalcTargets() {
+		//Test an open walkway, a walkway near the pool, and a room with a secret passage.
+		BoardCell[] starts = { board.getCell(10, 9), board.getCell(12, 17), board.getRoom('S').getCenterCell() };
+		for(BoardCell start : starts) {
+			Map<Integer, Set<BoardCell>> allRolls = board.calcTargetsForRolls(start, 6);
+			assertEquals(6, allRolls.size());
+			for(int roll = 1; roll <= 6; roll++) {
+				board.calcTargets(start, roll);
+				assertEquals(board.getTargets(), allRolls.get(roll));
+			}
+		}
+	}
+
+	/**
+	 * Changing the occupancy of a cell should only throw out the cached targets that looked at that cell.
+	 */
+	@Test
+	void testCacheInvalidation() {
+		TargetCache cache = board.getTargetCache();
+		BoardCell startCell = board.getCell(10, 9);
+		//Calculate the targets once so they are cached, then again to hit the cache.
+		board.calcTargets(startCell, 1);
+		long hits = cache.getHits();
+		board.calcTargets(startCell, 1);
+		assertEquals(hits + 1, cache.getHits());
+		assertEquals(3, board.getTargets().size());
+
+		//Occupying a cell far away from the start should not affect the cached targets.
+		board.getCell(21, 7).setOccupied(true);
+		hits = cache.getHits();
+		board.calcTargets(startCell, 1);
+		assertEquals(hits + 1, cache.getHits());
+		board.getCell(21, 7).setOccupied(false);
+
+		//Occupying a neighbor should throw the targets out, and the new targets should not include it.
+		board.getCell(9, 9).setOccupied(true);
+		hits = cache.getHits();
+		board.calcTargets(startCell, 1);
+		assertEquals(hits, cache.getHits());
+		assertEquals(2, board.getTargets().size());
+		assertFalse(board.getTargets().contains(board.getCell(9, 9)));
+		board.getCell(9, 9).setOccupied(false);
+
+		//Freeing the neighbor should bring it back.
+		board.calcTargets(startCell, 1);
+		assertEquals(3, board.getTargets().size());
+	}
+
+	/**
+	 * Long rolls are searched with pruning, and should still match a full walk of every path.
+	 */
+	@Test
+	void testLongRollsMatchFullSearch() {
+		BoardCell[] starts = { board.getCell(10, 9), board.getCell(7, 6), board.getRoom('O').getCenterCell() };
+		for(BoardCell start : starts) {
+			//calcTargetsForRolls() walks every path, without pruning.
+			Map<Integer, Set<BoardCell>> allRolls = board.calcTargetsForRolls(start, 12);
+			for(int roll = 7; roll <= 12; roll++) {
+				board.calcTargets(start, roll);
+				assertEquals(allRolls.get(roll), board.getTargets());
+			}
+		}
+	}
+
+	/**
+	 * Filling a caller's buffer should give the same targets as calcTargets(), without touching the board's target set.
+	 */
+	@Test
+	void testTargetBuffer() {
+		TargetBuffer buffer = new TargetBuffer();
+		BoardCell startCell = board.getCell(10, 9);
+		board.calcTargets(board.getCell(7, 6), 2);
+		Set<BoardCell> boardTargets = new HashSet<BoardCell>(board.getTargets());
+
+		//A roll of 3 from (10,9) should give 9 targets, including (13,9).
+		int count = board.calcTargets(startCell, 3, buffer);
+		assertEquals(9, count);
+		assertEquals(9, buffer.size());
+		assertTrue(buffer.contains(finder.getIndex(board.getCell(13, 9))));
+		//The targets should come out in increasing order of index.
+		for(int i = 1; i < buffer.size(); i++) {
+			assertTrue(buffer.getCellIndex(i - 1) < buffer.getCellIndex(i));
+		}
+		//The board's own targets should be untouched.
+		assertEquals(boardTargets, board.getTargets());
+
+		//Reusing the buffer should replace its contents.
+		count = board.calcTargets(startCell, 1, buffer);
+		assertEquals(3, count);
+		Set<BoardCell> fromBuffer = new HashSet<BoardCell>();
+		for(int i = 0; i < buffer.size(); i++) {
+			fromBuffer.add(buffer.getCell(i));
+		}
+		board.calcTargets(startCell, 1);
+		assertEquals(board.getTargets(), fromBuffer);
+	}
+}
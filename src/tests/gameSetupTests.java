@@ -269,4 +269,227 @@ class GameSetupTests {
 		assertEquals(1,weaponCount);
 	}
 	
+	/**
+	 * Test that every card in the deck has its own id in the deck's registry, numbered densely from 0, and that a card created by name is
+	 * equal to the deck's card.
+	 */
+	@Test
+	public void testCardRegistry() {
+		CardRegistry registry = board.getRegistry();
+		assertSame(registry, CardRegistry.getActive());
+		Set<Integer> ids = new HashSet<Integer>();
+		for(Card card : board.getDeck()) {
+			//Every card is the registered card for its id, and ids aren't shared.
+			assertTrue(card.getId() < 21);
+			assertSame(registry, card.getRegistry());
+			assertSame(card, registry.getCard(card.getId()));
+			assertSame(card, registry.findCard(card.getName(), card.getType()));
+			assertTrue(ids.add(card.getId()));
+		}
+		assertEquals(21, ids.size());
+		
+		//A card made by name is a view of the registered card, so it can be found in hash sets of the deck's cards.
+		Card knife = new Card("Knife", CardType.WEAPON);
+		assertEquals(registry.findCard("Knife", CardType.WEAPON), knife);
+		assertTrue(new HashSet<Card>(board.getDeck()).contains(knife));
+		//The same name with a different type is a different card.
+		assertNotEquals(knife, new Card("Knife", CardType.ROOM));
+		//Each player's person card is found by id.
+		for(Player player : board.getPlayers()) {
+			assertEquals(player.getName(), registry.getCard(player.getCardId()).getName());
+		}
+		//Unknown names aren't registered by a lookup, by creating a card, or by creating a player.
+		assertNull(registry.findCard("Candlestick", CardType.WEAPON));
+		Card candlestick = new Card("Candlestick", CardType.WEAPON);
+		assertNull(registry.findCard("Candlestick", CardType.WEAPON));
+		assertNotSame(registry, candlestick.getRegistry());
+		assertEquals(candlestick, new Card("Candlestick", CardType.WEAPON));
+		assertEquals(registry.size(), board.getDeck().size());
+		new ComputerPlayer("Colonel Mustard", Color.BLACK, 0, 0);
+		assertNull(registry.findCard("Colonel Mustard", CardType.PERSON));
+		
+		//Another deck has a registry of its own, numbered from 0 again. Its cards are still equal to this deck's cards with the same name
+		//and type, the same way a CardSet of this deck's cards contains them.
+		board.setConfigFiles("ClueLayout306.csv", "ClueSetup306.txt");
+		board.initialize();
+		assertNotSame(registry, board.getRegistry());
+		for(Card card : board.getDeck()) {
+			assertTrue(card.getId() < board.getDeck().size());
+		}
+		Card otherKnife = new Card("Knife", CardType.WEAPON);
+		assertNotSame(registry, otherKnife.getRegistry());
+		assertEquals(registry.findCard("Knife", CardType.WEAPON), otherKnife);
+		assertEquals(registry.findCard("Knife", CardType.WEAPON).hashCode(), otherKnife.hashCode());
+		CardSet deckSet = new CardSet();
+		deckSet.add(registry.findCard("Knife", CardType.WEAPON));
+		assertTrue(deckSet.contains(otherKnife));
+		//Going back to the first deck's files reuses its template, and its registry.
+		board.setConfigFiles("ClueLayout.csv", "ClueSetup.txt");
+		board.initialize();
+		assertSame(registry, board.getRegistry());
+	}
+	
+	/**
+	 * Test that the dealer deals every card of a deck exactly once, between the solution and the players' hands, without changing the deck.
+	 */
+	@Test
+	public void testCardDealer() {
+		ArrayList<Card> deck = new ArrayList<Card>(board.getDeck());
+		ArrayList<Card> before = new ArrayList<Card>(deck);
+		ArrayList<Player> players = new ArrayList<Player>();
+		for(int k = 0; k < 6; k++) {
+			players.add(new ComputerPlayer("Dealt" + k, Color.BLACK, 0, 0));
+		}
+		
+		CardDealer dealer = new CardDealer(deck);
+		assertTrue(dealer.hasEveryType());
+		//Picking a card of one type, from the dealer or the board, leaves the deck alone.
+		for(CardType type : CardType.values()) {
+			assertEquals(type, dealer.pick(type, new GameRandom(22)).getType());
+		}
+		int deckSize = board.getDeck().size();
+		assertEquals(CardType.WEAPON, board.getCardOfType(CardType.WEAPON).getType());
+		assertEquals(deckSize, board.getDeck().size());
+		Set<Card> solution = dealer.deal(players, new GameRandom(22), DealPolicy.EVEN, Player.MAX_CARDS);
+		assertThrows(IllegalStateException.class, () -> dealer.pick(CardType.ROOM, new GameRandom(22)));
+		//The deck is untouched.
+		assertEquals(before, deck);
+		//Every card is either in the solution or in exactly one hand, and every hand is full.
+		Set<Card> dealt = new HashSet<Card>(solution);
+		assertEquals(3, solution.size());
+		for(Player player : players) {
+			assertEquals(3, player.getHand().size());
+			for(Card card : player.getHand()) {
+				assertTrue(dealt.add(card));
+			}
+		}
+		assertEquals(new HashSet<Card>(deck), dealt);
+		
+		//A deck missing a type can't be dealt.
+		ArrayList<Card> noWeapons = new ArrayList<Card>();
+		for(Card card : deck) {
+			if(card.getType() != CardType.WEAPON) {
+				noWeapons.add(card);
+			}
+		}
+		assertFalse(new CardDealer(noWeapons).hasEveryType());
+	}
+	
+	/**
+	 * Test that a deck larger than the players' default hands is dealt out in full under DealPolicy.EVEN, with hands sized to fit, and
+	 * that DealPolicy.FIXED deals the configured number of cards to each player.
+	 */
+	@Test
+	public void testDealPolicy() {
+		//A scaled up deck of 63 cards, 21 of each type, for 13 players.
+		ArrayList<Card> deck = new ArrayList<Card>();
+		CardType[] types = CardType.values();
+		for(int k = 0; k < 63; k++) {
+			deck.add(new Card("Scaled" + k, types[k % 3]));
+		}
+		ArrayList<Player> players = new ArrayList<Player>();
+		for(int k = 0; k < 13; k++) {
+			players.add(new ComputerPlayer("Scaled" + k, Color.BLACK, 0, 0));
+		}
+		
+		//All 60 cards left after the solution are dealt, 4 or 5 to each player.
+		Set<Card> dealt = new CardDealer(deck).deal(players, new GameRandom(25), DealPolicy.EVEN, Player.MAX_CARDS);
+		int fives = 0;
+		for(Player player : players) {
+			assertEquals(5, player.getHandCapacity());
+			assertTrue(player.getHand().size() == 4 || player.getHand().size() == 5);
+			if(player.getHand().size() == 5) {
+				fives++;
+			}
+			for(Card card : player.getHand()) {
+				assertTrue(dealt.add(card));
+			}
+		}
+		assertEquals(8, fives);
+		assertEquals(new HashSet<Card>(deck), dealt);
+		
+		//Dealt again with fixed hands of 2, only 26 of the cards left are dealt.
+		players.clear();
+		for(int k = 0; k < 13; k++) {
+			players.add(new ComputerPlayer("Scaled" + k, Color.BLACK, 0, 0));
+		}
+		dealt = new CardDealer(deck).deal(players, new GameRandom(25), DealPolicy.FIXED, 2);
+		for(Player player : players) {
+			assertEquals(2, player.getHand().size());
+			dealt.addAll(player.getHand());
+		}
+		assertEquals(29, dealt.size());
+		
+		//The board deals the standard deck the same way either way, 3 cards to each player.
+		board.setDealPolicy(DealPolicy.FIXED, Player.MAX_CARDS);
+		board.initialize();
+		for(Player player : board.getPlayers()) {
+			assertEquals(3, player.getHand().size());
+		}
+		board.setDealPolicy(DealPolicy.EVEN, Player.MAX_CARDS);
+		board.initialize();
+		for(Player player : board.getPlayers()) {
+			assertEquals(3, player.getHand().size());
+		}
+	}
+	
+	/**
+	 * Test that two games started from the same seed are dealt the same way, and that their computer players make the same choices.
+	 */
+	@Test
+	public void testSeededGame() {
+		board.setSeed(2023L);
+		String first = playSeededGame();
+		String second = playSeededGame();
+		assertEquals(first, second);
+		assertEquals(2023L, board.getRandom().getSeed());
+		
+		//A different seed deals a different game, at least for one of a handful of seeds.
+		boolean differs = false;
+		for(long seed = 0; seed < 5 && !differs; seed++) {
+			board.setSeed(seed);
+			differs = !first.equals(playSeededGame());
+		}
+		assertTrue(differs);
+		
+		//Split generators are reproducible from their parent's seed.
+		GameRandom a = new GameRandom(7), b = new GameRandom(7);
+		GameRandom splitA = a.split(), splitB = b.split();
+		for(int k = 0; k < 100; k++) {
+			assertEquals(splitA.nextInt(1000), splitB.nextInt(1000));
+			assertEquals(a.roll(6), b.roll(6));
+		}
+		//Split generators have no seed that would replay them.
+		assertTrue(a.hasSeed());
+		assertFalse(splitA.hasSeed());
+		assertThrows(IllegalStateException.class, () -> splitA.getSeed());
+		
+		//Go back to a new seed every game, for the other tests.
+		board.setSeed(null);
+		board.initialize();
+	}
+	
+	/**
+	 * Starts a game from the board's seed, and moves each computer player once.
+	 * @return - A description of the solution, every hand, every roll, and every player's move and suggestion.
+	 */
+	private String playSeededGame() {
+		board.initialize();
+		StringBuilder game = new StringBuilder();
+		game.append(board.getSolution());
+		for(Player player : board.getPlayers()) {
+			game.append(player.getHand());
+			if(player instanceof ComputerPlayer) {
+				int roll = board.getRandom().roll(6);
+				board.calcTargets(player.getPosition(), roll);
+				BoardCell target = ((ComputerPlayer) player).selectTarget();
+				game.append(roll).append(" ").append(target.getRow()).append(",").append(target.getCol());
+				if(target.isRoomCenter()) {
+					player.setPosition(target);
+					game.append(((ComputerPlayer) player).createSuggestion());
+				}
+			}
+		}
+		return game.toString();
+	}
 }